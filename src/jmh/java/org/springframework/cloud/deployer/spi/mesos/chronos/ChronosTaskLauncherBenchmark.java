@@ -0,0 +1,112 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.chronos;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.task.TaskStatus;
+import org.springframework.cloud.mesos.chronos.client.Chronos;
+import org.springframework.cloud.mesos.chronos.client.model.Job;
+
+/**
+ * Measures the CPU cost of the {@link ChronosTaskLauncher} hot paths against an in-memory stub of Chronos
+ * that answers without any I/O: building and submitting the job of a launch request, and building a task
+ * status from the graph CSV of the given number of jobs, looking up the last one.
+ * <p>
+ * Run with {@code ./mvnw -P jmh test-compile exec:exec -Djmh.includes=ChronosTaskLauncherBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChronosTaskLauncherBenchmark {
+
+	@Param({"100", "1000", "10000"})
+	int jobs;
+
+	private ChronosTaskLauncher launcher;
+
+	private ChronosTaskLauncherProperties properties;
+
+	private AppDeploymentRequest request;
+
+	private String csv;
+
+	private Job lastJob;
+
+	@Setup
+	public void setUp() {
+		LoggingSystem.get(getClass().getClassLoader()).setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.WARN);
+
+		Chronos chronos = (Chronos) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Chronos.class},
+				(proxy, method, args) -> null);
+		properties = new ChronosTaskLauncherProperties();
+		launcher = new ChronosTaskLauncher(properties, chronos);
+
+		Map<String, String> appProperties = new HashMap<>();
+		for (int i = 0; i < 20; i++) {
+			appProperties.put("spring.cloud.task.property" + i, "value-" + i);
+		}
+		Map<String, String> deploymentProperties = new HashMap<>();
+		deploymentProperties.put(AppDeployer.MEMORY_PROPERTY_KEY, "1024");
+		deploymentProperties.put(AppDeployer.CPU_PROPERTY_KEY, "1.5");
+		deploymentProperties.put(ChronosTaskLauncherProperties.PREFIX + ".constraints", "hostname UNIQUE,rack_id GROUP_BY 3");
+		request = new AppDeploymentRequest(new AppDefinition("timestamp", appProperties),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"), deploymentProperties);
+
+		StringBuilder graph = new StringBuilder();
+		for (int i = 0; i < jobs; i++) {
+			graph.append("node,timestamp-").append(i).append(i % 2 == 0 ? ",success,idle\n" : ",failure,running\n");
+		}
+		csv = graph.toString();
+		lastJob = new Job();
+		lastJob.setName("timestamp-" + (jobs - 1));
+	}
+
+	@Benchmark
+	public String launch() {
+		return launcher.launch(request);
+	}
+
+	@Benchmark
+	public TaskStatus buildTaskStatus() {
+		return launcher.buildTaskStatus(properties, lastJob.getName(), lastJob, csv);
+	}
+}
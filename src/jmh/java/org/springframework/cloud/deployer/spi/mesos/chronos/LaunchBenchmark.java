@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.chronos;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.mesos.stub.StubChronosServer;
+import org.springframework.cloud.mesos.chronos.client.ChronosClient;
+import org.springframework.cloud.mesos.client.HttpClientProperties;
+import org.springframework.cloud.mesos.client.HttpTransport;
+
+/**
+ * Measures the task launch throughput of {@link ChronosTaskLauncher} against a {@link StubChronosServer} that
+ * answers after a fixed latency, launching the tasks one by one with
+ * {@link ChronosTaskLauncher#launch(AppDeploymentRequest)} or as a batch with
+ * {@link ChronosTaskLauncher#launchAll(List)}. Scores are per launched task.
+ * <p>
+ * Run with {@code ./mvnw -P jmh test-compile exec:exec -Djmh.includes=LaunchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LaunchBenchmark {
+
+	private static final int TASKS = 200;
+
+	@Param({"5"})
+	long latencyMillis;
+
+	@Param({"1", "4", "16"})
+	int launchConcurrency;
+
+	private StubChronosServer server;
+
+	private HttpTransport transport;
+
+	private ChronosTaskLauncher launcher;
+
+	private List<AppDeploymentRequest> requests;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		LoggingSystem.get(getClass().getClassLoader()).setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.WARN);
+
+		server = new StubChronosServer();
+		server.setLatency(latencyMillis);
+
+		HttpClientProperties http = new HttpClientProperties();
+		http.setMaxConnectionsPerRoute(32);
+		transport = new HttpTransport(http);
+		ChronosTaskLauncherProperties properties = new ChronosTaskLauncherProperties();
+		properties.setLaunchConcurrency(launchConcurrency);
+		launcher = new ChronosTaskLauncher(properties, ChronosClient.getInstance(
+				server.getUrl(), transport.getClient(), transport.getOptions()));
+
+		requests = new ArrayList<>(TASKS);
+		for (int i = 0; i < TASKS; i++) {
+			Map<String, String> appProperties = new HashMap<>();
+			appProperties.put("spring.cloud.task.name", "task-" + i % 10);
+			appProperties.put("spring.datasource.url", "jdbc:mysql://mysql.marathon.mesos:3306/tasks");
+			requests.add(new AppDeploymentRequest(new AppDefinition("task-" + i % 10, appProperties),
+					new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest")));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		transport.close();
+		server.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TASKS)
+	public int launchOneByOne() {
+		int launched = 0;
+		for (AppDeploymentRequest request : requests) {
+			launcher.launch(request);
+			launched++;
+		}
+		return launched;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TASKS)
+	public List<ChronosTaskLauncher.LaunchResult> launchAll() {
+		return launcher.launchAll(requests);
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.chronos;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.hashids.Hashids;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+
+/**
+ * Compares the throughput of {@link HashidsTaskIdGenerator} with creating a {@link Hashids} per id, as the
+ * launcher used to, from several threads launching the same task.
+ * <p>
+ * Run with {@code ./mvnw -P jmh test-compile exec:exec -Djmh.includes=TaskIdGeneratorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class TaskIdGeneratorBenchmark {
+
+	private final AppDeploymentRequest request = new AppDeploymentRequest(
+			new AppDefinition("timestamp", Collections.emptyMap()),
+			new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"));
+
+	private final HashidsTaskIdGenerator generator = new HashidsTaskIdGenerator();
+
+	@Benchmark
+	public String hashidsPerId() {
+		String name = request.getDefinition().getName();
+		return name + "-" + new Hashids(name).encode(System.currentTimeMillis());
+	}
+
+	@Benchmark
+	public String cachedHashids() {
+		return generator.generateId(request);
+	}
+}
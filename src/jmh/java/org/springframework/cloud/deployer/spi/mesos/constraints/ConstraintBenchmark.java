@@ -0,0 +1,60 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.constraints;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Measures parsing the comma delimited constraints of a deployment request into {@link Constraint}s and
+ * converting them to the lists sent to Marathon and Chronos, as done for every deploy and launch.
+ * <p>
+ * Run with {@code ./mvnw -P jmh test-compile exec:exec -Djmh.includes=ConstraintBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstraintBenchmark {
+
+	private final String constraints = "hostname UNIQUE,rack_id GROUP_BY 3,hostname LIKE ^10\\.0\\..*,"
+			+ "zone CLUSTER us-east-1a";
+
+	@Benchmark
+	public List<List<String>> parse() {
+		List<List<String>> result = new ArrayList<>();
+		for (String raw : StringUtils.commaDelimitedListToSet(constraints)) {
+			result.add(new Constraint(raw).toStringList());
+		}
+		return result;
+	}
+}
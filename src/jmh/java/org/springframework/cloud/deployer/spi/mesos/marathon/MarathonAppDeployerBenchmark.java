@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.marathon;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import mesosphere.marathon.client.model.v2.App;
+import mesosphere.marathon.client.model.v2.GetAppResponse;
+import mesosphere.marathon.client.model.v2.Task;
+import mesosphere.marathon.client.utils.MarathonException;
+import mesosphere.marathon.client.utils.ModelUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppInstanceStatus;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.mesos.marathon.client.ExtendedMarathon;
+
+/**
+ * Measures the CPU cost of the {@link MarathonAppDeployer} hot paths against an in-memory stub of Marathon
+ * that answers without any I/O: building and submitting the app of a deploy request, building the status of
+ * an app with the given number of instances, and adapting a single task to a {@link MarathonAppInstanceStatus}.
+ * <p>
+ * Run with {@code ./mvnw -P jmh test-compile exec:exec -Djmh.includes=MarathonAppDeployerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarathonAppDeployerBenchmark {
+
+	private static final String DEPLOYED_APP = "/ticktock/ticktock-log";
+
+	@Param({"1", "10", "100"})
+	int instances;
+
+	private MarathonAppDeployer deployer;
+
+	private AppDeploymentRequest request;
+
+	private App app;
+
+	private Task task;
+
+	@Setup
+	public void setUp() {
+		LoggingSystem.get(getClass().getClassLoader()).setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.WARN);
+
+		StringBuilder json = new StringBuilder("{\"app\":{\"id\":\"").append(DEPLOYED_APP)
+				.append("\",\"instances\":").append(instances).append(",\"tasksRunning\":").append(instances)
+				.append(",\"tasks\":[");
+		for (int i = 0; i < instances; i++) {
+			json.append(i > 0 ? "," : "").append("{\"id\":\"ticktock_ticktock-log.").append(i)
+					.append("\",\"host\":\"10.0.0.").append(i % 250).append("\",\"ports\":[").append(31000 + i)
+					.append("],\"stagedAt\":\"2017-03-01T10:00:00.000Z\",\"startedAt\":\"2017-03-01T10:00:05.000Z\"")
+					.append(",\"healthCheckResults\":[{\"alive\":true}]}");
+		}
+		GetAppResponse deployed = ModelUtils.GSON.fromJson(json.append("]}}").toString(), GetAppResponse.class);
+		app = deployed.getApp();
+		task = app.getTasks().iterator().next();
+
+		MarathonException notFound = new MarathonException(404, "Not Found");
+		ExtendedMarathon marathon = (ExtendedMarathon) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] {ExtendedMarathon.class}, (proxy, method, args) -> {
+					switch (method.getName()) {
+						case "getApp":
+							if (DEPLOYED_APP.equals(args[0])) {
+								return deployed;
+							}
+							throw notFound;
+						case "getGroup":
+						case "getGroupWithTasks":
+							throw notFound;
+						case "createApp":
+							return args[0];
+						default:
+							return null;
+					}
+				});
+		deployer = new MarathonAppDeployer(new MarathonAppDeployerProperties(), marathon, Runnable::run);
+
+		Map<String, String> properties = new HashMap<>();
+		for (int i = 0; i < 20; i++) {
+			properties.put("spring.cloud.stream.bindings.input.property" + i, "value-" + i);
+		}
+		Map<String, String> deploymentProperties = new HashMap<>();
+		deploymentProperties.put(AppDeployer.GROUP_PROPERTY_KEY, "ticktock");
+		deploymentProperties.put(AppDeployer.COUNT_PROPERTY_KEY, String.valueOf(instances));
+		deploymentProperties.put(AppDeployer.MEMORY_PROPERTY_KEY, "1024");
+		deploymentProperties.put(AppDeployer.CPU_PROPERTY_KEY, "1.5");
+		deploymentProperties.put(MarathonAppDeployerProperties.PREFIX + ".constraints", "hostname UNIQUE,rack_id GROUP_BY 3");
+		request = new AppDeploymentRequest(new AppDefinition("time", properties),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"), deploymentProperties);
+	}
+
+	@TearDown
+	public void tearDown() {
+		deployer.destroy();
+	}
+
+	@Benchmark
+	public String deploy() {
+		return deployer.deploy(request);
+	}
+
+	@Benchmark
+	public DeploymentState status(Blackhole blackhole) {
+		AppStatus status = deployer.status(DEPLOYED_APP);
+		for (AppInstanceStatus instance : status.getInstances().values()) {
+			blackhole.consume(instance.getAttributes());
+		}
+		return status.getState();
+	}
+
+	@Benchmark
+	public Map<String, String> instanceStatus(Blackhole blackhole) {
+		MarathonAppInstanceStatus status = MarathonAppInstanceStatus.up(app, task);
+		blackhole.consume(status.getState());
+		return status.getAttributes();
+	}
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.chronos.client;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.mesos.chronos.client.model.JobGraph;
+
+/**
+ * Compares {@link GraphCsvReader} with the regex based splitting previously used to look up a job
+ * in the Chronos graph CSV. Each graph has one {@code link} row per two {@code node} rows, and the
+ * looked up job is the last node, i.e. the worst case for an early exit.
+ * <p>
+ * Run with {@code ./mvnw -P jmh test-compile exec:exec -Djmh.includes=GraphCsvBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphCsvBenchmark {
+
+	@Param({"1000", "10000", "100000"})
+	int rows;
+
+	String csv;
+
+	String lastJob;
+
+	@Setup
+	public void setUp() {
+		StringBuilder builder = new StringBuilder();
+		int nodes = 0;
+		for (int i = 0; i < rows; i++) {
+			if (i % 3 == 2) {
+				builder.append("link,job-").append(i - 2).append(",job-").append(i - 1).append('\n');
+			}
+			else {
+				lastJob = "job-" + i;
+				builder.append("node,").append(lastJob).append(nodes++ % 2 == 0 ? ",success,idle" : ",failure,running")
+						.append('\n');
+			}
+		}
+		csv = builder.toString();
+	}
+
+	@Benchmark
+	public String[] splitFind() {
+		List<String> csvLines = Arrays.asList(csv.split("\\r?\\n"));
+		for (String line : csvLines) {
+			if (line.startsWith("node")) {
+				List<String> values = Arrays.asList(line.split("\\s*,\\s*"));
+				if (values.size() >= 4) {
+					if (lastJob.equals(values.get(1))) {
+						return new String[] {values.get(2), values.get(3)};
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	@Benchmark
+	public JobGraph.Node streamingFind() throws IOException {
+		return GraphCsvReader.find(new StringReader(csv), lastJob);
+	}
+
+	@Benchmark
+	public Map<String, String[]> splitReadAll() {
+		Map<String, String[]> nodes = new HashMap<>();
+		for (String line : csv.split("\\r?\\n")) {
+			if (line.startsWith("node")) {
+				String[] values = line.split("\\s*,\\s*");
+				if (values.length >= 4) {
+					nodes.putIfAbsent(values[1], new String[] {values[2], values[3]});
+				}
+			}
+		}
+		return nodes;
+	}
+
+	@Benchmark
+	public JobGraph streamingReadAll() throws IOException {
+		return GraphCsvReader.readAll(new StringReader(csv));
+	}
+}
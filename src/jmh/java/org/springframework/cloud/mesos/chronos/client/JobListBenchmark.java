@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.chronos.client;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.mesos.chronos.client.model.AbstractModel;
+import org.springframework.cloud.mesos.chronos.client.model.DockerContainer;
+import org.springframework.cloud.mesos.chronos.client.model.DockerJob;
+import org.springframework.cloud.mesos.chronos.client.model.Job;
+import org.springframework.cloud.mesos.chronos.client.model.JobNames;
+
+/**
+ * Compares binding the whole Chronos job list to {@link Job}s, as {@code GsonDecoder} does, with the
+ * streaming reads of {@link JobListReader}. The looked up job is the last one of the list.
+ * <p>
+ * Run with {@code ./mvnw -P jmh test-compile exec:exec -Djmh.includes=JobListBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobListBenchmark {
+
+	@Param({"100", "1000", "10000"})
+	int jobs;
+
+	String json;
+
+	String lastJob;
+
+	@Setup
+	public void setUp() {
+		List<Job> list = new ArrayList<>(jobs);
+		for (int i = 0; i < jobs; i++) {
+			DockerJob job = new DockerJob();
+			lastJob = "task-" + i + "-jlB4ZbVX";
+			job.setName(lastJob);
+			job.setCommand("");
+			job.setShell(false);
+			job.setSchedule("R1//P");
+			job.setRetries(1);
+			job.setCpus(0.5);
+			job.setMem(512.0);
+			job.setOwner("test@example.com");
+			job.setArguments(Arrays.asList("--server.port=8080", "--spring.cloud.task.name=task-" + i));
+			DockerContainer container = new DockerContainer();
+			container.setImage("springcloud/spring-cloud-deployer-spi-test-app:latest");
+			job.setContainer(container);
+			list.add(job);
+		}
+		json = AbstractModel.GSON.toJson(list);
+	}
+
+	@Benchmark
+	public List<Job> bindAll() {
+		return AbstractModel.GSON.fromJson(json, new TypeToken<List<Job>>() {}.getType());
+	}
+
+	@Benchmark
+	public JobNames readNames() throws IOException {
+		return JobListReader.readNames(new StringReader(json));
+	}
+
+	@Benchmark
+	public Job find() throws IOException {
+		return JobListReader.find(new StringReader(json), lastJob);
+	}
+}
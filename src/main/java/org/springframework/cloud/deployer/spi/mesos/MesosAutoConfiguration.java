@@ -16,24 +16,44 @@
 
 package org.springframework.cloud.deployer.spi.mesos;
 
-import mesosphere.marathon.client.Marathon;
-import mesosphere.marathon.client.MarathonClient;
+import java.util.HashMap;
+import java.util.Map;
 
+import feign.Client;
+
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfigureOrder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.ConfigurationPropertiesBinding;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.context.config.annotation.RefreshScope;
-import org.springframework.cloud.deployer.spi.app.AppDeployer;
 import org.springframework.cloud.deployer.spi.mesos.chronos.ChronosTaskLauncher;
 import org.springframework.cloud.deployer.spi.mesos.chronos.ChronosTaskLauncherProperties;
+import org.springframework.cloud.deployer.spi.mesos.chronos.HashidsTaskIdGenerator;
+import org.springframework.cloud.deployer.spi.mesos.chronos.TaskIdGenerator;
 import org.springframework.cloud.deployer.spi.mesos.constraints.ConstraintConverter;
 import org.springframework.cloud.deployer.spi.mesos.dcos.DcosClusterProperties;
+import org.springframework.cloud.deployer.spi.mesos.marathon.DeploymentLatencyTracker;
 import org.springframework.cloud.deployer.spi.mesos.marathon.MarathonAppDeployer;
 import org.springframework.cloud.deployer.spi.mesos.marathon.MarathonAppDeployerProperties;
+import org.springframework.cloud.deployer.spi.mesos.marathon.MarathonEventStream;
 import org.springframework.cloud.deployer.spi.task.TaskLauncher;
 import org.springframework.cloud.mesos.chronos.client.Chronos;
 import org.springframework.cloud.mesos.chronos.client.ChronosClient;
+import org.springframework.cloud.mesos.chronos.client.SingleFlightChronos;
+import org.springframework.cloud.mesos.client.Bulkhead;
+import org.springframework.cloud.mesos.client.BulkheadClient;
+import org.springframework.cloud.mesos.client.CircuitBreaker;
+import org.springframework.cloud.mesos.client.HttpTransport;
+import org.springframework.cloud.mesos.client.InstrumentedClient;
+import org.springframework.cloud.mesos.client.RateLimitingClient;
+import org.springframework.cloud.mesos.client.RetryingClient;
 import org.springframework.cloud.mesos.dcos.client.DcosHeadersInterceptor;
+import org.springframework.cloud.mesos.marathon.client.ExtendedMarathon;
+import org.springframework.cloud.mesos.marathon.client.ExtendedMarathonClient;
+import org.springframework.cloud.mesos.marathon.client.ResilientMarathon;
+import org.springframework.cloud.mesos.metrics.MetricsRegistry;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
@@ -53,40 +73,114 @@ import org.springframework.util.StringUtils;
 @AutoConfigureOrder(Ordered.HIGHEST_PRECEDENCE)
 public class MesosAutoConfiguration {
 
+	@Bean
+	@ConditionalOnMissingBean
+	public MetricsRegistry mesosMetricsRegistry() {
+		return new SimpleMetricsRegistry();
+	}
+
 	@Bean
 	@RefreshScope
-	public Marathon marathon(MarathonAppDeployerProperties marathonProperties, DcosClusterProperties dcosClusterProperties) {
+	public HttpTransport marathonHttpTransport(MarathonAppDeployerProperties marathonProperties) {
+		return new HttpTransport(marathonProperties.getHttp());
+	}
+
+	@Bean
+	@RefreshScope
+	public ExtendedMarathon marathon(MarathonAppDeployerProperties marathonProperties, DcosClusterProperties dcosClusterProperties,
+			@Qualifier("marathonHttpTransport") HttpTransport transport, MetricsRegistry metricsRegistry) {
+		Client client = new InstrumentedClient(transport.getClient(), metricsRegistry, "marathon",
+				ExtendedMarathonClient.API_PATH_SEGMENTS);
+		if (marathonProperties.getBulkhead().isEnabled()) {
+			client = new BulkheadClient(client, new Bulkhead(marathonProperties.getBulkhead(), metricsRegistry,
+					"marathon"));
+		}
+		if (marathonProperties.getHttp().getRateLimiter().isEnabled()) {
+			client = new RateLimitingClient(client, marathonProperties.getHttp().getRateLimiter(), metricsRegistry,
+					"marathon");
+		}
+		client = new RetryingClient(client, marathonProperties.getHttp().getRetry(), metricsRegistry, "marathon",
+				ExtendedMarathonClient.API_PATH_SEGMENTS);
+		ExtendedMarathon marathon;
 		if (StringUtils.hasText(dcosClusterProperties.getAuthorizationToken())) {
-			return MarathonClient.getInstance(marathonProperties.getApiEndpoint(),
+			marathon = ExtendedMarathonClient.getInstance(marathonProperties.getApiEndpoint(),
+					client, transport.getOptions(), RetryingClient.NEVER_RETRY,
 					new DcosHeadersInterceptor(dcosClusterProperties.getAuthorizationToken()));
 		}
 		else {
-			return MarathonClient.getInstance(marathonProperties.getApiEndpoint());
+			marathon = ExtendedMarathonClient.getInstance(marathonProperties.getApiEndpoint(),
+					client, transport.getOptions(), RetryingClient.NEVER_RETRY);
+		}
+		if (!marathonProperties.getCircuitBreaker().isEnabled()) {
+			return marathon;
 		}
+		return ResilientMarathon.wrap(marathon,
+				new CircuitBreaker(marathonProperties.getCircuitBreaker(), metricsRegistry, "marathon"));
 	}
 
 	@Bean
 	@RefreshScope
-	public AppDeployer appDeployer(MarathonAppDeployerProperties marathonProperties, Marathon marathon) {
-		return new MarathonAppDeployer(marathonProperties, marathon);
+	public MarathonAppDeployer appDeployer(MarathonAppDeployerProperties marathonProperties, ExtendedMarathon marathon,
+			DcosClusterProperties dcosClusterProperties, MetricsRegistry metricsRegistry) {
+		MarathonAppDeployer appDeployer = new MarathonAppDeployer(marathonProperties, marathon);
+		if (marathonProperties.isDeploymentLatencyTracking()) {
+			appDeployer.setDeploymentLatencyTracker(new DeploymentLatencyTracker(metricsRegistry,
+					marathonProperties.getDeploymentLatencyMaxTracked()));
+		}
+		if (marathonProperties.isEventStreamEnabled()) {
+			Map<String, String> headers = new HashMap<>();
+			if (StringUtils.hasText(dcosClusterProperties.getAuthorizationToken())) {
+				headers.put("Authorization", "token=" + dcosClusterProperties.getAuthorizationToken());
+			}
+			appDeployer.setEventStream(new MarathonEventStream(marathonProperties.getApiEndpoint(), headers,
+					marathonProperties.getEventStreamReconnectDelay(), marathonProperties.getHttp().getConnectTimeout(),
+					marathonProperties.getHttp().getReadTimeout()));
+		}
+		return appDeployer;
+	}
+
+	@Bean
+	@RefreshScope
+	public HttpTransport chronosHttpTransport(ChronosTaskLauncherProperties chronosProperties) {
+		return new HttpTransport(chronosProperties.getHttp());
 	}
 
 	@Bean
 	@RefreshScope
-	public Chronos chronos(ChronosTaskLauncherProperties chronosProperties, DcosClusterProperties dcosClusterProperties) {
+	public Chronos chronos(ChronosTaskLauncherProperties chronosProperties, DcosClusterProperties dcosClusterProperties,
+			@Qualifier("chronosHttpTransport") HttpTransport transport, MetricsRegistry metricsRegistry) {
+		Client client = new InstrumentedClient(transport.getClient(), metricsRegistry, "chronos",
+				ChronosClient.API_PATH_SEGMENTS);
+		if (chronosProperties.getHttp().getRateLimiter().isEnabled()) {
+			client = new RateLimitingClient(client, chronosProperties.getHttp().getRateLimiter(), metricsRegistry,
+					"chronos");
+		}
+		client = new RetryingClient(client, chronosProperties.getHttp().getRetry(), metricsRegistry, "chronos",
+				ChronosClient.API_PATH_SEGMENTS);
+		Chronos chronos;
 		if (StringUtils.hasText(dcosClusterProperties.getAuthorizationToken())) {
-			return ChronosClient.getInstance(chronosProperties.getApiEndpoint(),
+			chronos = ChronosClient.getInstance(chronosProperties.getApiEndpoint(),
+					client, transport.getOptions(), RetryingClient.NEVER_RETRY,
 					new DcosHeadersInterceptor(dcosClusterProperties.getAuthorizationToken()));
 		}
 		else {
-			return ChronosClient.getInstance(chronosProperties.getApiEndpoint());
+			chronos = ChronosClient.getInstance(chronosProperties.getApiEndpoint(),
+					client, transport.getOptions(), RetryingClient.NEVER_RETRY);
 		}
+		return new SingleFlightChronos(chronos, metricsRegistry, "chronos");
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public TaskIdGenerator taskIdGenerator() {
+		return new HashidsTaskIdGenerator();
 	}
 
 	@Bean
 	@RefreshScope
-	public TaskLauncher taskDeployer(ChronosTaskLauncherProperties chronosProperties, Chronos chronos) {
-		return new ChronosTaskLauncher(chronosProperties, chronos);
+	public TaskLauncher taskDeployer(ChronosTaskLauncherProperties chronosProperties, Chronos chronos,
+			TaskIdGenerator taskIdGenerator) {
+		return new ChronosTaskLauncher(chronosProperties, chronos, taskIdGenerator);
 	}
 
 	@Bean
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.chronos;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.mesos.chronos.client.Chronos;
+import org.springframework.cloud.mesos.chronos.client.ChronosException;
+import org.springframework.cloud.mesos.chronos.client.model.JobGraph;
+import org.springframework.cloud.mesos.chronos.client.model.JobNames;
+
+/**
+ * In-memory index of the Chronos job list and job graph, shared by all status requests of a
+ * {@link ChronosTaskLauncher}. The index is refreshed on demand once it is older than the
+ * configured staleness bound, so that any number of status requests within that window cost a
+ * single download of the graph and of the job list.
+ */
+class ChronosJobIndex {
+
+	private static final Log logger = LogFactory.getLog(ChronosJobIndex.class);
+
+	private final Chronos chronos;
+
+	private final long maxStalenessNanos;
+
+	private final Object refreshMonitor = new Object();
+
+	private volatile Snapshot snapshot;
+
+	private final AtomicLong generation = new AtomicLong();
+
+	ChronosJobIndex(Chronos chronos, long maxStaleness) {
+		this.chronos = chronos;
+		this.maxStalenessNanos = TimeUnit.MILLISECONDS.toNanos(maxStaleness);
+	}
+
+	/**
+	 * Return a snapshot that is no older than the staleness bound, refreshing it if needed.
+	 * Concurrent callers that find the snapshot stale share a single refresh.
+	 */
+	Snapshot snapshot() {
+		if (maxStalenessNanos <= 0) {
+			return load();
+		}
+		Snapshot current = this.snapshot;
+		if (isStale(current)) {
+			synchronized (refreshMonitor) {
+				current = this.snapshot;
+				if (isStale(current)) {
+					current = load();
+					this.snapshot = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Mark the current snapshot as stale, forcing the next status request to refresh it. Called
+	 * whenever the launcher itself changes the jobs known to Chronos.
+	 */
+	void invalidate() {
+		generation.incrementAndGet();
+		snapshot = null;
+	}
+
+	private boolean isStale(Snapshot snapshot) {
+		if (snapshot == null) {
+			return true;
+		}
+		return snapshot.generation != generation.get()
+				|| System.nanoTime() - snapshot.loadedAt >= maxStalenessNanos;
+	}
+
+	private Snapshot load() {
+		long loadedGeneration = generation.get();
+		long loadedAt = System.nanoTime();
+		JobGraph graph;
+		try {
+			graph = chronos.getGraph();
+		} catch (ChronosException e) {
+			throw new IllegalStateException(String.format("Error while retrieving graph"), e);
+		}
+		JobNames jobs;
+		try {
+			jobs = chronos.getJobNames();
+		} catch (ChronosException e) {
+			throw new IllegalStateException(String.format("Error while retrieving jobs"), e);
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("Refreshed job index with %d jobs and %d graph nodes", jobs.size(), graph.size()));
+		}
+		return new Snapshot(jobs, graph, loadedGeneration, loadedAt);
+	}
+
+	/**
+	 * An immutable view of the jobs and graph nodes known to Chronos at a given point in time.
+	 */
+	static class Snapshot {
+
+		private final JobNames jobs;
+
+		private final JobGraph graph;
+
+		private final long generation;
+
+		private final long loadedAt;
+
+		Snapshot(JobNames jobs, JobGraph graph, long generation, long loadedAt) {
+			this.jobs = jobs;
+			this.graph = graph;
+			this.generation = generation;
+			this.loadedAt = loadedAt;
+		}
+
+		boolean hasJob(String name) {
+			return jobs.contains(name);
+		}
+
+		JobGraph.Node getNode(String name) {
+			return graph.getNode(name);
+		}
+	}
+}
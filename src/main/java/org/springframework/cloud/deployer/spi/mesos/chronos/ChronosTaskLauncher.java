@@ -17,24 +17,32 @@
 package org.springframework.cloud.deployer.spi.mesos.chronos;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import feign.Response;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.hashids.Hashids;
 
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
@@ -46,9 +54,13 @@ import org.springframework.cloud.deployer.spi.task.TaskStatus;
 import org.springframework.cloud.deployer.spi.util.RuntimeVersionUtils;
 import org.springframework.cloud.mesos.chronos.client.Chronos;
 import org.springframework.cloud.mesos.chronos.client.ChronosException;
+import org.springframework.cloud.mesos.chronos.client.GraphCsvReader;
+import org.springframework.cloud.mesos.chronos.client.JobListReader;
 import org.springframework.cloud.mesos.chronos.client.model.DockerContainer;
 import org.springframework.cloud.mesos.chronos.client.model.DockerJob;
 import org.springframework.cloud.mesos.chronos.client.model.Job;
+import org.springframework.cloud.mesos.chronos.client.model.JobGraph;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.StringUtils;
 
 /**
@@ -60,17 +72,99 @@ public class ChronosTaskLauncher implements TaskLauncher {
 
 	private static final Log logger = LogFactory.getLog(ChronosTaskLauncher.class);
 
+	private static final int SPRING_APPLICATION_JSON_CACHE_SIZE = 256;
+
+	/**
+	 * Serializer of the app definition properties. Unlike a new {@link ObjectMapper} per launch, an
+	 * {@link ObjectWriter} is immutable and can be shared by all launches.
+	 */
+	private static final ObjectWriter propertiesWriter = new ObjectMapper().writerFor(Map.class);
+
 	private ChronosTaskLauncherProperties properties = new ChronosTaskLauncherProperties();
 
 	private Chronos chronos;
 
+	private final ChronosJobIndex jobIndex;
+
+	private final TaskIdGenerator idGenerator;
+
+	/**
+	 * The serialized properties of recently launched app definitions, keyed by the properties.
+	 */
+	private final Map<Map<String, String>, String> springApplicationJsonCache =
+			Collections.synchronizedMap(new LinkedHashMap<Map<String, String>, String>(16, 0.75f, true) {
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Map<String, String>, String> eldest) {
+					return size() > SPRING_APPLICATION_JSON_CACHE_SIZE;
+				}
+			});
+
 	public ChronosTaskLauncher(ChronosTaskLauncherProperties properties, Chronos chronos) {
+		this(properties, chronos, new HashidsTaskIdGenerator());
+	}
+
+	public ChronosTaskLauncher(ChronosTaskLauncherProperties properties, Chronos chronos, TaskIdGenerator idGenerator) {
 		this.properties = properties;
 		this.chronos = chronos;
+		this.jobIndex = new ChronosJobIndex(chronos, properties.getStatusMaxStaleness());
+		this.idGenerator = idGenerator;
 	}
 
 	@Override
 	public String launch(AppDeploymentRequest request) {
+		try {
+			return createJob(buildJob(request));
+		}
+		finally {
+			jobIndex.invalidate();
+		}
+	}
+
+	/**
+	 * Launch several tasks, submitting up to {@link ChronosTaskLauncherProperties#getLaunchConcurrency()}
+	 * jobs to Chronos at a time. A failure to launch one task doesn't affect the others.
+	 *
+	 * @param requests the tasks to launch
+	 * @return the result of each launch, in the order of {@code requests}
+	 */
+	public List<LaunchResult> launchAll(List<AppDeploymentRequest> requests) {
+		List<LaunchResult> results = new ArrayList<>(requests.size());
+		if (requests.isEmpty()) {
+			return results;
+		}
+		int concurrency = Math.max(1, Math.min(properties.getLaunchConcurrency(), requests.size()));
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory("chronos-launch-"));
+		try {
+			List<Future<String>> futures = new ArrayList<>(requests.size());
+			for (AppDeploymentRequest request : requests) {
+				futures.add(executor.submit(() -> createJob(buildJob(request))));
+			}
+			for (int i = 0; i < requests.size(); i++) {
+				try {
+					results.add(new LaunchResult(requests.get(i), futures.get(i).get(), null));
+				}
+				catch (ExecutionException e) {
+					results.add(new LaunchResult(requests.get(i), null, e.getCause()));
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while launching tasks", e);
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+			jobIndex.invalidate();
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("Launched %d of %d tasks",
+					results.stream().filter(LaunchResult::isSuccess).count(), requests.size()));
+		}
+		return results;
+	}
+
+	private DockerJob buildJob(AppDeploymentRequest request) {
 		String jobName = createDeploymentId(request);
 		String image = null;
 		try {
@@ -116,6 +210,11 @@ public class ChronosTaskLauncher implements TaskLauncher {
 		if (properties.getUris() != null && properties.getUris().length > 0) {
 			job.setUris(Arrays.asList(properties.getUris()));
 		}
+		return job;
+	}
+
+	private String createJob(DockerJob job) {
+		String jobName = job.getName();
 		try {
 			if (logger.isDebugEnabled()) {
 				logger.debug("Launching Job with definition:\n" + job.toString());
@@ -135,33 +234,87 @@ public class ChronosTaskLauncher implements TaskLauncher {
 		} catch (ChronosException e) {
 			throw new IllegalStateException(String.format("Error while canceling job '%s'", id), e);
 		}
+		finally {
+			jobIndex.invalidate();
+		}
 	}
 
 	@Override
 	public TaskStatus status(String id) {
-		String csv = null;
+		TaskStatus status;
+		if (properties.getStatusMaxStaleness() > 0) {
+			ChronosJobIndex.Snapshot snapshot = jobIndex.snapshot();
+			status = buildTaskStatus(id, snapshot.hasJob(id), snapshot.getNode(id));
+		}
+		else {
+			status = lookupTaskStatus(id);
+		}
+		logger.debug(String.format("Status for task: %s is %s", id, status));
+
+		return status;
+	}
+
+	/**
+	 * Look up the status of a single task without the job index, searching for the job by name rather
+	 * than listing all jobs. The search result and job graph are parsed as streams that stop at the job,
+	 * without binding the other jobs or nodes. Closing the body still drains the rest of it, so that
+	 * the connection can be reused, so the whole job graph is transferred.
+	 */
+	private TaskStatus lookupTaskStatus(String id) {
+		Job job;
 		try {
-			csv = chronos.getGraphCsv();
-		} catch (ChronosException e) {
+			job = readBody(chronos.streamSearchJobs(id), reader -> JobListReader.find(reader, id));
+		} catch (ChronosException | IOException e) {
+			throw new IllegalStateException(String.format("Error while searching for job '%s'", id), e);
+		}
+		if (job == null) {
+			return buildTaskStatus(id, false, null);
+		}
+		JobGraph.Node node;
+		try {
+			node = readBody(chronos.streamGraphCsv(), reader -> GraphCsvReader.find(reader, id));
+		} catch (ChronosException | IOException e) {
 			throw new IllegalStateException(String.format("Error while retrieving graph"), e);
 		}
-		List<Job> list = null;
+		return buildTaskStatus(id, true, node);
+	}
+
+	/**
+	 * Read the body of a streamed response, always closing it, which consumes what the reader left.
+	 *
+	 * @return what the reader returned, or {@code null} for a response without body
+	 * @throws ChronosException if the response has an error status
+	 */
+	private static <T> T readBody(Response response, BodyReader<T> reader) throws ChronosException, IOException {
 		try {
-			list = chronos.getJobs();
-		} catch (ChronosException e) {
-			throw new IllegalStateException(String.format("Error while retrieving jobs"), e);
+			if (response.status() < 200 || response.status() >= 300) {
+				throw new ChronosException(response.status(), response.reason());
+			}
+			return response.body() != null ? reader.read(response.body().asReader()) : null;
 		}
-		Job job = null;
-		for (Job j : list) {
-			if (j.getName().equals(id)) {
-				job = j;
-				break;
+		finally {
+			if (response.body() != null) {
+				response.body().close();
 			}
 		}
-		TaskStatus status = buildTaskStatus(properties, id, job, csv);
-		logger.debug(String.format("Status for task: %s is %s", id, status));
+	}
 
-		return status;
+	/**
+	 * Return the status of several tasks at once. All statuses are resolved against the same
+	 * snapshot of the job list and job graph, which is downloaded at most once per call.
+	 *
+	 * @param ids the ids of the tasks, as returned by {@link #launch(AppDeploymentRequest)}
+	 * @return the status of each task, keyed by id in iteration order of {@code ids}
+	 */
+	public Map<String, TaskStatus> statusAll(Collection<String> ids) {
+		ChronosJobIndex.Snapshot snapshot = jobIndex.snapshot();
+		Map<String, TaskStatus> statuses = new LinkedHashMap<>(ids.size());
+		for (String id : ids) {
+			statuses.put(id, buildTaskStatus(id, snapshot.hasJob(id), snapshot.getNode(id)));
+		}
+		logger.debug(String.format("Status for tasks: %s is %s", ids, statuses.values()));
+
+		return statuses;
 	}
 
 	@Override
@@ -171,6 +324,9 @@ public class ChronosTaskLauncher implements TaskLauncher {
 		} catch (ChronosException e) {
 			throw new IllegalStateException(String.format("Error while deleting job '%s'", id), e);
 		}
+		finally {
+			jobIndex.invalidate();
+		}
 	}
 
 	@Override
@@ -194,19 +350,12 @@ public class ChronosTaskLauncher implements TaskLauncher {
 
 
 	protected String createDeploymentId(AppDeploymentRequest request) {
-		String name = request.getDefinition().getName();
-		Hashids hashids = new Hashids(name);
-		String hashid = hashids.encode(System.currentTimeMillis());
-		return name + "-" + hashid;
+		return idGenerator.generateId(request);
 	}
 
 	protected Map<String, String> createSpringApplicationJson(AppDeploymentRequest request) {
-		String value = "{}";
-		try {
-			value = new ObjectMapper().writeValueAsString(
-					Optional.ofNullable(request.getDefinition().getProperties())
-							.orElse(Collections.emptyMap()));
-		} catch (JsonProcessingException e) {}
+		String value = serializeProperties(Optional.ofNullable(request.getDefinition().getProperties())
+				.orElse(Collections.emptyMap()));
 		Map<String, String> springApp = new HashMap<>();
 		if (!"{}".equals(value)) {
 			springApp.put("name", "SPRING_APPLICATION_JSON");
@@ -215,6 +364,25 @@ public class ChronosTaskLauncher implements TaskLauncher {
 		return springApp;
 	}
 
+	/**
+	 * Serialize app definition properties to JSON, reusing the result of a previous launch with the same
+	 * properties. An {@code AppDefinition} only wraps the caller's map, so a new entry is keyed by a copy of
+	 * the properties that a later change of that map can't reach. Lookups use the map as it is.
+	 */
+	private String serializeProperties(Map<String, String> definitionProperties) {
+		String value = springApplicationJsonCache.get(definitionProperties);
+		if (value == null) {
+			Map<String, String> key = new HashMap<>(definitionProperties);
+			try {
+				value = propertiesWriter.writeValueAsString(key);
+			} catch (JsonProcessingException e) {
+				return "{}";
+			}
+			springApplicationJsonCache.put(key, value);
+		}
+		return value;
+	}
+
 	protected List<String> createCommandArgs(AppDeploymentRequest request) {
 		List<String> cmdArgs = new LinkedList<String>();
 		// add provided command line args
@@ -224,26 +392,23 @@ public class ChronosTaskLauncher implements TaskLauncher {
 	}
 
 	protected TaskStatus buildTaskStatus(ChronosTaskLauncherProperties properties, String id, Job job, String csv) {
-		if (job == null) {
-			return new TaskStatus(id, LaunchState.unknown, new HashMap<>());
-		}
-		String last = null;
-		String state= null;
-		if (StringUtils.hasText(csv)) {
-			List<String> csvLines = Arrays.asList(csv.split("\\r?\\n"));
-			for (String line : csvLines) {
-				if (line.startsWith("node")) {
-					List<String> values = Arrays.asList(line.split("\\s*,\\s*"));
-					if (values.size() >= 4) {
-						if (id.equals(values.get(1))) {
-							last = values.get(2);
-							state = values.get(3);
-							break;
-						}
-					}
-				}
+		JobGraph.Node node = null;
+		if (job != null && StringUtils.hasText(csv)) {
+			try {
+				node = GraphCsvReader.find(new StringReader(csv), id);
+			} catch (IOException e) {
+				throw new IllegalStateException("Error while reading graph", e);
 			}
 		}
+		return buildTaskStatus(id, job != null, node);
+	}
+
+	private TaskStatus buildTaskStatus(String id, boolean exists, JobGraph.Node node) {
+		if (!exists) {
+			return new TaskStatus(id, LaunchState.unknown, new HashMap<>());
+		}
+		String last = node != null ? node.getLastStatus() : null;
+		String state = node != null ? node.getState() : null;
 		if ("running".equals(state)) {
 			return new TaskStatus(id, LaunchState.running, new HashMap<>());
 		}
@@ -280,4 +445,51 @@ public class ChronosTaskLauncher implements TaskLauncher {
 	private String prefix(String property) {
 		return ChronosTaskLauncherProperties.PREFIX + "." + property;
 	}
+
+	/**
+	 * The outcome of launching one task with {@link #launchAll(List)}: either the id of the launched
+	 * task, or the error that prevented it from being launched.
+	 */
+	public static class LaunchResult {
+
+		private final AppDeploymentRequest request;
+
+		private final String id;
+
+		private final Throwable error;
+
+		LaunchResult(AppDeploymentRequest request, String id, Throwable error) {
+			this.request = request;
+			this.id = id;
+			this.error = error;
+		}
+
+		public AppDeploymentRequest getRequest() {
+			return request;
+		}
+
+		public String getId() {
+			return id;
+		}
+
+		public Throwable getError() {
+			return error;
+		}
+
+		public boolean isSuccess() {
+			return error == null;
+		}
+
+		@Override
+		public String toString() {
+			return isSuccess() ? "LaunchResult[" + id + "]" : "LaunchResult[" + error + "]";
+		}
+	}
+
+	@FunctionalInterface
+	private interface BodyReader<T> {
+
+		T read(Reader reader) throws IOException;
+
+	}
 }
@@ -21,6 +21,7 @@ import java.util.Set;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.deployer.spi.mesos.constraints.Constraint;
+import org.springframework.cloud.mesos.client.HttpClientProperties;
 
 /**
  * Configuration properties for interacting with a Chronos service.
@@ -77,6 +78,24 @@ public class ChronosTaskLauncherProperties {
 	 */
 	private Set<Constraint> constraints = new HashSet<>(0);
 
+	/**
+	 * Maximum age, in milliseconds, of the cached job list and job graph used to answer status requests.
+	 * The default of 0 queries Chronos on every status request, searching for the job by name instead of
+	 * listing all jobs. A higher value lets status requests share downloads of the job list and graph, at
+	 * the cost of reporting the state of jobs changed outside of this launcher that much later.
+	 */
+	private long statusMaxStaleness = 0L;
+
+	/**
+	 * Maximum number of jobs submitted to Chronos at a time when launching several tasks at once.
+	 */
+	private int launchConcurrency = 4;
+
+	/**
+	 * Configuration of the HTTP connections to the Chronos REST endpoint.
+	 */
+	private HttpClientProperties http = new HttpClientProperties();
+
 	public double getMemory() {
 		return memory;
 	}
@@ -148,4 +167,28 @@ public class ChronosTaskLauncherProperties {
 	public void setConstraints(Set<Constraint> constraints) {
 		this.constraints = constraints;
 	}
+
+	public long getStatusMaxStaleness() {
+		return statusMaxStaleness;
+	}
+
+	public void setStatusMaxStaleness(long statusMaxStaleness) {
+		this.statusMaxStaleness = statusMaxStaleness;
+	}
+
+	public int getLaunchConcurrency() {
+		return launchConcurrency;
+	}
+
+	public void setLaunchConcurrency(int launchConcurrency) {
+		this.launchConcurrency = launchConcurrency;
+	}
+
+	public HttpClientProperties getHttp() {
+		return http;
+	}
+
+	public void setHttp(HttpClientProperties http) {
+		this.http = http;
+	}
 }
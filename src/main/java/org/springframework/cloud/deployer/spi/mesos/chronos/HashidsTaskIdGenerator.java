@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.chronos;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hashids.Hashids;
+
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+
+/**
+ * Default {@link TaskIdGenerator}, generating ids of the form {@code <task name>-<hashid>}. The hashid,
+ * salted with the task name, encodes the launch time together with a sequence number, so that tasks
+ * launched within the same millisecond still get distinct ids. The sequence starts at a random value, which
+ * makes collisions between launchers on different nodes unlikely as well.
+ * <p>
+ * The {@link Hashids} instance of each task name is created once and reused, as setting up the salted
+ * alphabet costs more than encoding.
+ */
+public class HashidsTaskIdGenerator implements TaskIdGenerator {
+
+	/**
+	 * Largest sequence number, well below the largest number {@link Hashids} can encode.
+	 */
+	private static final long MAX_SEQUENCE = Integer.MAX_VALUE;
+
+	private static final int MAX_CACHED_NAMES = 1024;
+
+	private final ConcurrentMap<String, Hashids> hashids = new ConcurrentHashMap<>();
+
+	private final AtomicLong sequence = new AtomicLong(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE));
+
+	@Override
+	public String generateId(AppDeploymentRequest request) {
+		String name = request.getDefinition().getName();
+		long next = sequence.getAndIncrement() & MAX_SEQUENCE;
+		return name + "-" + hashids(name).encode(System.currentTimeMillis(), next);
+	}
+
+	private Hashids hashids(String name) {
+		Hashids cached = hashids.get(name);
+		if (cached == null) {
+			if (hashids.size() >= MAX_CACHED_NAMES) {
+				hashids.clear();
+			}
+			cached = hashids.computeIfAbsent(name, Hashids::new);
+		}
+		return cached;
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.chronos;
+
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+
+/**
+ * Strategy for the ids of the tasks launched by {@link ChronosTaskLauncher}, which are also the names of
+ * the Chronos jobs. Implementations must be thread-safe and never return the same id twice, also when the
+ * same task is launched concurrently.
+ */
+public interface TaskIdGenerator {
+
+	/**
+	 * Generate the id of a task about to be launched.
+	 *
+	 * @param request the launch request
+	 * @return a new unique id, usable as a Chronos job name
+	 */
+	String generateId(AppDeploymentRequest request);
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.marathon;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+
+/**
+ * Non-blocking variant of the {@link AppDeployer} operations. The returned futures complete on a
+ * dedicated executor, so that callers are not blocked while the platform is slow to respond.
+ */
+public interface AsyncAppDeployer {
+
+	/**
+	 * Deploy an app, see {@link AppDeployer#deploy(AppDeploymentRequest)}.
+	 *
+	 * @return a future completed with the deployment id
+	 */
+	CompletableFuture<String> deployAsync(AppDeploymentRequest request);
+
+	/**
+	 * Undeploy an app, see {@link AppDeployer#undeploy(String)}.
+	 */
+	CompletableFuture<Void> undeployAsync(String id);
+
+	/**
+	 * Get the status of an app, see {@link AppDeployer#status(String)}.
+	 */
+	CompletableFuture<AppStatus> statusAsync(String id);
+
+}
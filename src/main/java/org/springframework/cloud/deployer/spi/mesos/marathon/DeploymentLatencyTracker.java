@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.marathon;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.deployer.spi.app.AppInstanceStatus;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.mesos.metrics.MetricsRegistry;
+
+/**
+ * Tracks how long deployments take to roll out, from the deploy request being accepted by Marathon until all
+ * instances are {@link DeploymentState#deployed}. The first task staged and started times are taken from the
+ * {@code staged_at} and {@code started_at} attributes of the instances, the time all instances are healthy is
+ * the first status observed in that state, so its precision depends on how often the status is polled.
+ * <p>
+ * Once a deployment is healthy, the following histograms are recorded in milliseconds, tagged with the
+ * {@code app} name:
+ * <ul>
+ * <li>{@value #FIRST_STAGED}: until the first task was staged</li>
+ * <li>{@value #FIRST_STARTED}: until the first task was started</li>
+ * <li>{@value #HEALTHY}: until all instances were healthy</li>
+ * </ul>
+ * Staged and started times come from the Marathon clock, so they are subject to the clock skew between
+ * Marathon and the deployer.
+ */
+public class DeploymentLatencyTracker {
+
+	public static final String FIRST_STAGED = "mesos.deployer.deploy.first-staged";
+
+	public static final String FIRST_STARTED = "mesos.deployer.deploy.first-started";
+
+	public static final String HEALTHY = "mesos.deployer.deploy.healthy";
+
+	private static final Log logger = LogFactory.getLog(DeploymentLatencyTracker.class);
+
+	private final MetricsRegistry registry;
+
+	private final Map<String, Deployment> deployments;
+
+	/**
+	 * @param registry the registry to record the latencies in
+	 * @param maxTracked the maximum number of deployments to track at a time, beyond which the oldest one is
+	 * dropped without being recorded
+	 */
+	public DeploymentLatencyTracker(MetricsRegistry registry, int maxTracked) {
+		this.registry = registry;
+		this.deployments = new LinkedHashMap<String, Deployment>(16, 0.75f, false) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Deployment> eldest) {
+				return size() > maxTracked;
+			}
+		};
+	}
+
+	/**
+	 * Start tracking a deployment that was just submitted to Marathon.
+	 *
+	 * @param id the id of the deployed app or group
+	 * @param appName the name of the app definition
+	 */
+	public synchronized void submitted(String id, String appName) {
+		deployments.put(id, new Deployment(appName, System.currentTimeMillis()));
+	}
+
+	/**
+	 * Stop tracking a deployment, for example because it was undeployed before becoming healthy.
+	 */
+	public synchronized void forget(String id) {
+		deployments.remove(id);
+	}
+
+	/**
+	 * Update a tracked deployment from its current status, recording its latencies once it is deployed.
+	 * Statuses of deployments that are not tracked are ignored.
+	 */
+	public void observe(String id, AppStatus status) {
+		long now = System.currentTimeMillis();
+		Deployment deployment;
+		synchronized (this) {
+			deployment = deployments.get(id);
+			if (deployment == null) {
+				return;
+			}
+			for (AppInstanceStatus instance : status.getInstances().values()) {
+				Map<String, String> attributes = instance.getAttributes();
+				deployment.firstStagedAt = min(deployment.firstStagedAt, parse(attributes.get("staged_at")));
+				deployment.firstStartedAt = min(deployment.firstStartedAt, parse(attributes.get("started_at")));
+			}
+			if (status.getState() != DeploymentState.deployed) {
+				return;
+			}
+			deployments.remove(id);
+		}
+		if (deployment.firstStagedAt != null) {
+			registry.record(FIRST_STAGED, deployment.firstStagedAt - deployment.submittedAt, "app", deployment.appName);
+		}
+		if (deployment.firstStartedAt != null) {
+			registry.record(FIRST_STARTED, deployment.firstStartedAt - deployment.submittedAt, "app", deployment.appName);
+		}
+		registry.record(HEALTHY, now - deployment.submittedAt, "app", deployment.appName);
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("Deployment %s was healthy after %d ms", id, now - deployment.submittedAt));
+		}
+	}
+
+	/**
+	 * The number of deployments currently tracked.
+	 */
+	public synchronized int size() {
+		return deployments.size();
+	}
+
+	private static Long min(Long current, Long value) {
+		if (current == null) {
+			return value;
+		}
+		return value != null ? Math.min(current, value) : current;
+	}
+
+	private static Long parse(String timestamp) {
+		if (timestamp == null || timestamp.isEmpty()) {
+			return null;
+		}
+		try {
+			return Instant.parse(timestamp).toEpochMilli();
+		}
+		catch (DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	private static class Deployment {
+
+		private final String appName;
+
+		private final long submittedAt;
+
+		private Long firstStagedAt;
+
+		private Long firstStartedAt;
+
+		Deployment(String appName, long submittedAt) {
+			this.appName = appName;
+			this.submittedAt = submittedAt;
+		}
+	}
+}
@@ -17,12 +17,22 @@
 package org.springframework.cloud.deployer.spi.mesos.marathon;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import mesosphere.marathon.client.Marathon;
@@ -38,6 +48,7 @@ import mesosphere.marathon.client.utils.MarathonException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.deployer.spi.app.AppDeployer;
 import org.springframework.cloud.deployer.spi.app.AppInstanceStatus;
@@ -46,7 +57,11 @@ import org.springframework.cloud.deployer.spi.app.DeploymentState;
 import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
 import org.springframework.cloud.deployer.spi.core.RuntimeEnvironmentInfo;
 import org.springframework.cloud.deployer.spi.mesos.constraints.Constraint;
+import org.springframework.cloud.deployer.spi.mesos.marathon.MarathonAppDeployerProperties.IndexedDeploymentStrategy;
 import org.springframework.cloud.deployer.spi.util.RuntimeVersionUtils;
+import org.springframework.cloud.mesos.client.CallNotPermittedException;
+import org.springframework.cloud.mesos.marathon.client.ExtendedMarathon;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -58,28 +73,115 @@ import org.springframework.util.StringUtils;
  * @author Ilayaperumal Gopinathan
  * @author Thomas Risberg
  */
-public class MarathonAppDeployer implements AppDeployer {
+public class MarathonAppDeployer implements AppDeployer, AsyncAppDeployer, DisposableBean {
 
 	private static final Log logger = LogFactory.getLog(MarathonAppDeployer.class);
 
+	/**
+	 * Runs the operations behind the synchronous {@link AppDeployer} methods on the calling thread.
+	 */
+	private static final Executor CALLER_RUNS = Runnable::run;
+
 	private MarathonAppDeployerProperties properties = new MarathonAppDeployerProperties();
 
 	Marathon marathon;
 
+	private final Executor asyncExecutor;
+
+	private ExecutorService ownedExecutor;
+
+	private final StatusCache statusCache;
+
+	private volatile boolean eventStreamConnected;
+
+	private MarathonEventStream eventStream;
+
+	private volatile DeploymentLatencyTracker latencyTracker;
+
 	@Autowired
 	public MarathonAppDeployer(MarathonAppDeployerProperties properties,
 	                           Marathon marathon) {
 		this.properties = properties;
 		this.marathon = marathon;
+		this.asyncExecutor = null;
+		this.statusCache = new StatusCache(properties.getStatusCacheMaxEntries(),
+				properties.getStatusFallbackMaxAge());
+	}
+
+	public MarathonAppDeployer(MarathonAppDeployerProperties properties,
+	                           Marathon marathon, Executor asyncExecutor) {
+		this.properties = properties;
+		this.marathon = marathon;
+		this.asyncExecutor = asyncExecutor;
+		this.statusCache = new StatusCache(properties.getStatusCacheMaxEntries(),
+				properties.getStatusFallbackMaxAge());
+	}
+
+	/**
+	 * Follow the given event stream to keep the statuses returned by {@link #status(String)} cached while it
+	 * is connected.
+	 */
+	public synchronized void setEventStream(MarathonEventStream eventStream) {
+		Assert.state(this.eventStream == null, "Event stream already set");
+		this.eventStream = eventStream;
+		eventStream.start(new StatusCacheInvalidator());
+	}
+
+	/**
+	 * Track the latency of the deployments made from now on, observing them through {@link #status(String)}.
+	 */
+	public void setDeploymentLatencyTracker(DeploymentLatencyTracker latencyTracker) {
+		this.latencyTracker = latencyTracker;
+	}
+
+	/**
+	 * The tracker of the deployment latencies, or {@code null} if they are not tracked.
+	 */
+	public DeploymentLatencyTracker getDeploymentLatencyTracker() {
+		return latencyTracker;
+	}
+
+	/**
+	 * The cache of the statuses returned by {@link #status(String)}, exposing its hit, miss and coalesced
+	 * lookup counts.
+	 */
+	public StatusCache getStatusCache() {
+		return statusCache;
 	}
 
 	@Override
 	public String deploy(AppDeploymentRequest request) {
+		return await(deployAsync(request, CALLER_RUNS));
+	}
+
+	@Override
+	public CompletableFuture<String> deployAsync(AppDeploymentRequest request) {
+		return deployAsync(request, asyncExecutor());
+	}
+
+	private CompletableFuture<String> deployAsync(AppDeploymentRequest request, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> doDeploy(request), executor);
+	}
+
+	private String doDeploy(AppDeploymentRequest request) {
 
 		logger.info(String.format("Deploying app: %s", request.getDefinition().getName()));
 
 		String appId = deduceAppId(request);
+		try {
+			createDeployment(request, appId);
+		}
+		finally {
+			invalidateStatus(appId);
+		}
+		DeploymentLatencyTracker tracker = latencyTracker;
+		if (tracker != null) {
+			tracker.submitted(appId, request.getDefinition().getName());
+		}
+		return appId;
+	}
 
+	private void createDeployment(AppDeploymentRequest request, String appId) {
 		boolean indexed = Boolean.valueOf(request.getDeploymentProperties().get(INDEXED_PROPERTY_KEY));
 
 		if (indexed) {
@@ -91,13 +193,15 @@ public class MarathonAppDeployer implements AppDeployer {
 			Container container = createContainer(request);
 			String countProperty = request.getDeploymentProperties().get(COUNT_PROPERTY_KEY);
 			int count = (countProperty != null) ? Integer.parseInt(countProperty) : 1;
-			for (int i = 0; i < count; i++) {
-				String instanceId = appId + "/" + request.getDefinition().getName() + "-" + i;
-				createAppDeployment(request, instanceId, container, Integer.valueOf(i));
+			if (deduceIndexedDeploymentStrategy(request) == IndexedDeploymentStrategy.GROUP) {
+				createGroupDeployment(request, appId, container, count);
+			}
+			else {
+				createInstanceDeployments(request, appId, container, count);
 			}
 		}
 		else {
-			AppStatus status = status(appId);
+			AppStatus status = fetchStatus(appId);
 			if (!status.getState().equals(DeploymentState.unknown)) {
 				throw new IllegalStateException(
 						String.format("App '%s' is already deployed", request.getDefinition().getName()));
@@ -105,11 +209,83 @@ public class MarathonAppDeployer implements AppDeployer {
 			Container container = createContainer(request);
 			createAppDeployment(request, appId, container, null);
 		}
+	}
 
-		return appId;
+	/**
+	 * Create the apps for all instances of an indexed deployment, issuing up to
+	 * {@link MarathonAppDeployerProperties#getInstanceConcurrency()} requests at a time. If any instance
+	 * can't be created, the instances that were created are deleted again and the failures are reported
+	 * together.
+	 */
+	private void createInstanceDeployments(AppDeploymentRequest request, String appId, Container container, int count) {
+		AtomicInteger created = new AtomicInteger();
+		List<MarathonOperation> operations = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String instanceId = appId + "/" + request.getDefinition().getName() + "-" + i;
+			Integer index = Integer.valueOf(i);
+			operations.add(() -> {
+				createApp(buildApp(request, instanceId, container, index));
+				created.incrementAndGet();
+			});
+		}
+		List<Throwable> failures = runOperations(operations, "marathon-deploy-");
+		if (!failures.isEmpty()) {
+			if (created.get() > 0) {
+				logger.warn(String.format("Failed to create %d instance(s) of app '%s', deleting the %d created instance(s)",
+						failures.size(), appId, created.get()));
+				try {
+					deleteAppsForGroupDeployment(appId);
+				}
+				catch (MarathonException | RuntimeException e) {
+					logger.error(String.format("Error while rolling back instances of app '%s'", appId), e);
+				}
+			}
+			IllegalStateException exception = new IllegalStateException(
+					String.format("Failed to deploy %d instance(s) of app '%s'", failures.size(), appId), failures.get(0));
+			for (Throwable failure : failures.subList(1, failures.size())) {
+				exception.addSuppressed(failure);
+			}
+			throw exception;
+		}
+	}
+
+	/**
+	 * Create all instances of an indexed deployment as apps of a single group, submitted in one request
+	 * so that Marathon rolls them out as one deployment.
+	 */
+	private void createGroupDeployment(AppDeploymentRequest request, String appId, Container container, int count) {
+		List<App> apps = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			String instanceId = appId + "/" + request.getDefinition().getName() + "-" + i;
+			apps.add(buildApp(request, instanceId, container, Integer.valueOf(i)));
+		}
+		Group group = new Group();
+		group.setId(appId);
+		group.setApps(apps);
+		logger.debug(String.format("Creating group %s with %d apps", appId, count));
+		try {
+			((ExtendedMarathon) marathon).createGroupDeployment(group);
+		}
+		catch (MarathonException e) {
+			throw new RuntimeException(e);
+		}
 	}
 
 	private void createAppDeployment(AppDeploymentRequest request, String deploymentId, Container container, Integer index) {
+		try {
+			createApp(buildApp(request, deploymentId, container, index));
+		}
+		catch (MarathonException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private void createApp(App app) throws MarathonException {
+		logger.debug("Creating app with definition:\n" + app.toString());
+		marathon.createApp(app);
+	}
+
+	private App buildApp(AppDeploymentRequest request, String deploymentId, Container container, Integer index) {
 		App app = new App();
 		app.setContainer(container);
 		app.setId(deploymentId);
@@ -144,14 +320,7 @@ public class MarathonAppDeployer implements AppDeployer {
 		healthCheck.setPath("/health");
 		healthCheck.setGracePeriodSeconds(300);
 		app.setHealthChecks(Arrays.asList(healthCheck));
-
-		logger.debug("Creating app with definition:\n" + app.toString());
-		try {
-			marathon.createApp(app);
-		}
-		catch (MarathonException e) {
-			throw new RuntimeException(e);
-		}
+		return app;
 	}
 
 	private Container createContainer(AppDeploymentRequest request) {
@@ -175,6 +344,32 @@ public class MarathonAppDeployer implements AppDeployer {
 
 	@Override
 	public void undeploy(String id) {
+		await(undeployAsync(id, CALLER_RUNS));
+	}
+
+	@Override
+	public CompletableFuture<Void> undeployAsync(String id) {
+		return undeployAsync(id, asyncExecutor());
+	}
+
+	private CompletableFuture<Void> undeployAsync(String id, Executor executor) {
+		return CompletableFuture.runAsync(() -> doUndeploy(id), executor);
+	}
+
+	private void doUndeploy(String id) {
+		DeploymentLatencyTracker tracker = latencyTracker;
+		if (tracker != null) {
+			tracker.forget(id);
+		}
+		try {
+			deleteDeployment(id);
+		}
+		finally {
+			invalidateStatus(id);
+		}
+	}
+
+	private void deleteDeployment(String id) {
 		logger.info(String.format("Undeploying app: %s", id));
 		Group group = null;
 		try {
@@ -183,13 +378,18 @@ public class MarathonAppDeployer implements AppDeployer {
 		if (group != null) {
 			logger.info(String.format("Undeploying application deployments for group: %s", group.getId()));
 			try {
-				if (group.getGroups().size() > 0) {
+				if (marathon instanceof ExtendedMarathon && isIndexedDeploymentGroup(group)) {
+					logger.info(String.format("Deleting group: %s", group.getId()));
+					((ExtendedMarathon) marathon).deleteGroupAndApps(group.getId(), properties.isUndeployForce());
+					deleteTopLevelGroupForDeployment(group.getId());
+				}
+				else if (group.getGroups().size() > 0) {
 					for (Group g : group.getGroups()) {
 						deleteAppsForGroupDeployment(g.getId());
 					}
 				}
 				else {
-					deleteAppsForGroupDeployment(group.getId());
+					deleteAppsForGroupDeployment(group);
 				}
 			} catch (MarathonException e) {
 				throw new RuntimeException(e);
@@ -198,7 +398,7 @@ public class MarathonAppDeployer implements AppDeployer {
 		else {
 			logger.info(String.format("Undeploying application deployment: %s", id));
 			try {
-				AppStatus status = status(id);
+				AppStatus status = fetchStatus(id);
 				if (status.getState().equals(DeploymentState.unknown)) {
 					throw new IllegalStateException(String.format("App '%s' is not in a deployed state", id));
 				}
@@ -222,18 +422,69 @@ public class MarathonAppDeployer implements AppDeployer {
 		}
 	}
 
+	/**
+	 * Whether the group only holds the instance apps of an indexed deployment, named
+	 * {@code <group>/<name>-<index>}, so that it can be deleted as a whole. An empty group is not
+	 * known to be one, so it isn't force deleted.
+	 */
+	private boolean isIndexedDeploymentGroup(Group group) {
+		if (group.getGroups() != null && group.getGroups().size() > 0) {
+			return false;
+		}
+		if (group.getApps() == null || group.getApps().isEmpty()) {
+			return false;
+		}
+		String groupId = group.getId();
+		String instancePrefix = groupId + "/" + groupId.substring(groupId.lastIndexOf('/') + 1) + "-";
+		for (App app : group.getApps()) {
+			String appId = app.getId();
+			if (!appId.startsWith(instancePrefix) || appId.length() == instancePrefix.length()
+					|| !appId.substring(instancePrefix.length()).chars().allMatch(Character::isDigit)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private void deleteAppsForGroupDeployment(String groupId) throws MarathonException {
-		Group group = marathon.getGroup(groupId);
+		deleteAppsForGroupDeployment(marathon.getGroup(groupId));
+	}
+
+	/**
+	 * Delete the apps of a group, up to {@link MarathonAppDeployerProperties#getInstanceConcurrency()} at a
+	 * time, and then the group itself if nothing else is left in it.
+	 */
+	private void deleteAppsForGroupDeployment(Group group) throws MarathonException {
+		String groupId = group.getId();
+		List<MarathonOperation> operations = new ArrayList<>(group.getApps().size());
 		for (App app : group.getApps()) {
-			logger.debug(String.format("Deleting application %s in group %s", app.getId(), groupId));
-			marathon.deleteApp(app.getId());
+			operations.add(() -> {
+				logger.debug(String.format("Deleting application %s in group %s", app.getId(), groupId));
+				marathon.deleteApp(app.getId());
+			});
 		}
-		group = marathon.getGroup(groupId);
-		if (logger.isDebugEnabled()) {
-			logger.debug(String.format("Group %s has %d applications and %d groups", group.getId(),
-					group.getApps().size(), group.getGroups().size()));
+		List<Throwable> failures = runOperations(operations, "marathon-undeploy-");
+		if (!failures.isEmpty()) {
+			Throwable failure = failures.get(0);
+			for (Throwable other : failures.subList(1, failures.size())) {
+				failure.addSuppressed(other);
+			}
+			if (failure instanceof MarathonException) {
+				throw (MarathonException) failure;
+			}
+			throw new IllegalStateException(String.format("Failed to delete apps of group '%s'", groupId), failure);
+		}
+		boolean empty = group.getGroups().size() == 0;
+		if (!empty) {
+			// a group with sub-groups may still hold apps, so check again
+			group = marathon.getGroup(groupId);
+			if (logger.isDebugEnabled()) {
+				logger.debug(String.format("Group %s has %d applications and %d groups", group.getId(),
+						group.getApps().size(), group.getGroups().size()));
+			}
+			empty = group.getApps().size() == 0 && group.getGroups().size() == 0;
 		}
-		if (group.getApps().size() == 0 && group.getGroups().size() == 0) {
+		if (empty) {
 			logger.info(String.format("Deleting group: %s", groupId));
 			marathon.deleteGroup(groupId);
 		}
@@ -257,6 +508,60 @@ public class MarathonAppDeployer implements AppDeployer {
 
 	@Override
 	public AppStatus status(String id) {
+		return await(statusAsync(id, CALLER_RUNS));
+	}
+
+	@Override
+	public CompletableFuture<AppStatus> statusAsync(String id) {
+		return statusAsync(id, asyncExecutor());
+	}
+
+	private CompletableFuture<AppStatus> statusAsync(String id, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> doStatus(id), executor);
+	}
+
+	/**
+	 * Serve the status from the cache if it was fetched within {@link MarathonAppDeployerProperties#getStatusCacheTtl()},
+	 * or within {@link MarathonAppDeployerProperties#getEventStreamStatusMaxAge()} while the event stream is
+	 * connected, sharing the fetch with concurrent callers otherwise. When Marathon can't be called, the last
+	 * known status fetched within {@link MarathonAppDeployerProperties#getStatusFallbackMaxAge()} is served.
+	 */
+	private AppStatus doStatus(String id) {
+		long maxAge = eventStreamConnected
+				? Math.max(properties.getEventStreamStatusMaxAge(), properties.getStatusCacheTtl())
+				: properties.getStatusCacheTtl();
+		AppStatus status;
+		try {
+			status = statusCache.get(id, maxAge, () -> fetchStatus(id));
+		}
+		catch (CallNotPermittedException e) {
+			AppStatus lastKnown = properties.getStatusFallbackMaxAge() > 0
+					? statusCache.getIfPresent(id, properties.getStatusFallbackMaxAge()) : null;
+			if (lastKnown == null) {
+				throw e;
+			}
+			logger.debug(String.format("Serving last known status of %s: %s", id, e.getMessage()));
+			return lastKnown;
+		}
+		DeploymentLatencyTracker tracker = latencyTracker;
+		if (tracker != null) {
+			tracker.observe(id, status);
+		}
+		return status;
+	}
+
+	private void invalidateStatus(String appId) {
+		statusCache.invalidateMatching(id -> isSameOrNested(id, appId) || isSameOrNested(appId, id));
+	}
+
+	/**
+	 * Whether {@code id} is {@code parentId} itself, or an app or group nested in it.
+	 */
+	private static boolean isSameOrNested(String id, String parentId) {
+		return id.equals(parentId) || "/".equals(parentId) || id.startsWith(parentId + "/");
+	}
+
+	private AppStatus fetchStatus(String id) {
 		AppStatus status;
 		try {
 			App app = marathon.getApp(id).getApp();
@@ -265,11 +570,11 @@ public class MarathonAppDeployer implements AppDeployer {
 		} catch (MarathonException e) {
 			if (e.getMessage().contains("Not Found")) {
 				try {
-					Group group = marathon.getGroup(id);
+					Group group = getGroupWithTasks(id);
 					logger.debug(String.format("Building status for group: %s", id));
 					AppStatus.Builder result = AppStatus.of(id);
 					for (App app : group.getApps()) {
-						result.with(buildInstanceStatus(app.getId()));
+						result.with(buildInstanceStatus(app));
 					}
 					status = result.build();
 				} catch (MarathonException e1) {
@@ -284,6 +589,37 @@ public class MarathonAppDeployer implements AppDeployer {
 		return status;
 	}
 
+	@Override
+	public void destroy() {
+		synchronized (this) {
+			if (eventStream != null) {
+				eventStream.stop();
+			}
+			if (ownedExecutor != null) {
+				ownedExecutor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * The executor of the asynchronous operations: the one given at construction, or else a pool of
+	 * {@link MarathonAppDeployerProperties#getAsyncPoolSize()} threads created on first use and shut down
+	 * with the deployer.
+	 */
+	private Executor asyncExecutor() {
+		if (asyncExecutor != null) {
+			return asyncExecutor;
+		}
+		synchronized (this) {
+			if (ownedExecutor == null) {
+				CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("marathon-deployer-");
+				threadFactory.setDaemon(true);
+				ownedExecutor = Executors.newFixedThreadPool(properties.getAsyncPoolSize(), threadFactory);
+			}
+			return ownedExecutor;
+		}
+	}
+
 	@Override
 	public RuntimeEnvironmentInfo environmentInfo() {
 		String apiVersion = "v1";
@@ -354,13 +690,40 @@ public class MarathonAppDeployer implements AppDeployer {
 		return override != null ? Double.valueOf(override) : properties.getCpu();
 	}
 
+	private IndexedDeploymentStrategy deduceIndexedDeploymentStrategy(AppDeploymentRequest request) {
+		String override = request.getDeploymentProperties().get(prefix("indexed-deployment-strategy"));
+		if (override == null) {
+			override = request.getDeploymentProperties().get(prefix("indexedDeploymentStrategy"));
+		}
+		IndexedDeploymentStrategy strategy = override != null
+				? IndexedDeploymentStrategy.valueOf(override.trim().toUpperCase())
+				: properties.getIndexedDeploymentStrategy();
+		if (strategy == IndexedDeploymentStrategy.GROUP && !(marathon instanceof ExtendedMarathon)) {
+			logger.warn("Group deployment of indexed apps requires an ExtendedMarathon client, creating apps instead");
+			return IndexedDeploymentStrategy.APPS;
+		}
+		return strategy;
+	}
+
 	private Integer deduceInstances(AppDeploymentRequest request) {
 		String value = request.getDeploymentProperties().get(COUNT_PROPERTY_KEY);
 		return value != null ? Integer.valueOf(value) : Integer.valueOf("1");
 	}
 
-	private AppInstanceStatus buildInstanceStatus(String id) throws MarathonException {
-		App appInstance = marathon.getApp(id).getApp();
+	private Group getGroupWithTasks(String id) throws MarathonException {
+		if (marathon instanceof ExtendedMarathon) {
+			return ((ExtendedMarathon) marathon).getGroupWithTasks(id);
+		}
+		return marathon.getGroup(id);
+	}
+
+	private AppInstanceStatus buildInstanceStatus(App app) throws MarathonException {
+		String id = app.getId();
+		App appInstance = app;
+		if (app.getTasks() == null || app.getTasksRunning() == null) {
+			// tasks were not embedded in the group, so we need to fetch the app itself
+			appInstance = marathon.getApp(id).getApp();
+		}
 		logger.debug("Deployment " + id + " has " + appInstance.getTasksRunning() + "/" + appInstance.getInstances() + " tasks running");
 		if (appInstance.getTasks() != null) {
 			// there should only be one task for this type of deployment
@@ -397,7 +760,111 @@ public class MarathonAppDeployer implements AppDeployer {
 		return result.build();
 	}
 
+	/**
+	 * Run the given operations, up to {@link MarathonAppDeployerProperties#getInstanceConcurrency()} at a time,
+	 * and return their failures. When run one at a time, the operations stop at the first failure.
+	 */
+	private List<Throwable> runOperations(List<MarathonOperation> operations, String threadNamePrefix) {
+		List<Throwable> failures = new ArrayList<>();
+		int concurrency = Math.max(1, Math.min(properties.getInstanceConcurrency(), operations.size()));
+		if (concurrency == 1) {
+			for (MarathonOperation operation : operations) {
+				try {
+					operation.run();
+				}
+				catch (MarathonException | RuntimeException e) {
+					failures.add(e);
+					break;
+				}
+			}
+			return failures;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory(threadNamePrefix));
+		try {
+			List<Future<?>> futures = new ArrayList<>(operations.size());
+			for (MarathonOperation operation : operations) {
+				futures.add(executor.submit(() -> {
+					operation.run();
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				try {
+					future.get();
+				}
+				catch (ExecutionException e) {
+					failures.add(e.getCause());
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					failures.add(e);
+					break;
+				}
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		return failures;
+	}
+
 	private String prefix(String property) {
 		return MarathonAppDeployerProperties.PREFIX + "." + property;
 	}
+
+	/**
+	 * Wait for the result of an operation, rethrowing its failure as-is rather than wrapped in a
+	 * {@link CompletionException}.
+	 */
+	private static <T> T await(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Invalidates the cached statuses of the apps reported by the event stream, and all of them whenever the
+	 * stream connects or drops, since events may have been missed.
+	 */
+	private class StatusCacheInvalidator implements MarathonEventStream.Listener {
+
+		@Override
+		public void onConnected() {
+			statusCache.clear();
+			eventStreamConnected = true;
+		}
+
+		@Override
+		public void onEvent(String eventType, Set<String> appIds) {
+			for (String appId : appIds) {
+				invalidateStatus(appId);
+			}
+		}
+
+		@Override
+		public void onDisconnected() {
+			eventStreamConnected = false;
+			statusCache.clear();
+			logger.info("Marathon event stream disconnected, polling statuses until it is re-opened");
+		}
+	}
+
+	/**
+	 * A single request to Marathon, as run by {@link #runOperations(List, String)}.
+	 */
+	@FunctionalInterface
+	private interface MarathonOperation {
+
+		void run() throws MarathonException;
+
+	}
 }
@@ -23,6 +23,9 @@ import java.util.Set;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.deployer.spi.mesos.constraints.Constraint;
+import org.springframework.cloud.mesos.client.BulkheadProperties;
+import org.springframework.cloud.mesos.client.CircuitBreakerProperties;
+import org.springframework.cloud.mesos.client.HttpClientProperties;
 
 /**
  * Configuration properties for connecting to a Marathon installation.
@@ -71,6 +74,93 @@ public class MarathonAppDeployerProperties {
 	 */
 	private List<String> uris = new ArrayList<>(0);
 
+	/**
+	 * Maximum number of concurrent requests made to Marathon when creating the instances of an indexed
+	 * deployment, or when deleting the apps of a group.
+	 */
+	private int instanceConcurrency = 1;
+
+	/**
+	 * How to create the instances of an indexed deployment: APPS creates one app per instance, GROUP submits
+	 * all instances as a single group, which Marathon rolls out as one deployment. Can be overridden at
+	 * deployment time.
+	 */
+	private IndexedDeploymentStrategy indexedDeploymentStrategy = IndexedDeploymentStrategy.APPS;
+
+	/**
+	 * Whether to force the deletion of a group when undeploying, even if a Marathon deployment is in progress
+	 * for one of its apps.
+	 */
+	private boolean undeployForce = false;
+
+	/**
+	 * Number of threads running the operations started through the asynchronous deployer methods.
+	 */
+	private int asyncPoolSize = 8;
+
+	/**
+	 * Time in milliseconds a fetched app status is served from the cache. With 0, every status request queries
+	 * Marathon, although concurrent requests for the same app still share one query.
+	 */
+	private long statusCacheTtl = 0L;
+
+	/**
+	 * Maximum number of cached app statuses, the least recently used being evicted first.
+	 */
+	private int statusCacheMaxEntries = 1000;
+
+	/**
+	 * Whether to follow the Marathon event stream and serve app statuses from a cache that is invalidated by
+	 * the events, instead of querying Marathon on every status request. Statuses are polled again while the
+	 * stream is down. The stream uses the connect and read timeouts of the HTTP connections, and is re-opened
+	 * when no data arrived within the read timeout.
+	 */
+	private boolean eventStreamEnabled = false;
+
+	/**
+	 * Delay in milliseconds before re-opening a dropped event stream, doubled on each failed attempt.
+	 */
+	private long eventStreamReconnectDelay = 1000L;
+
+	/**
+	 * Maximum age in milliseconds of a cached status, as a safeguard against events lost on a connection
+	 * that silently stopped delivering them.
+	 */
+	private long eventStreamStatusMaxAge = 60000L;
+
+	/**
+	 * Whether to record how long deployments take until their first task is staged and started, and until
+	 * all instances are healthy.
+	 */
+	private boolean deploymentLatencyTracking = true;
+
+	/**
+	 * Maximum number of deployments whose latency is tracked at a time.
+	 */
+	private int deploymentLatencyMaxTracked = 1000;
+
+	/**
+	 * Maximum age in milliseconds of the last known app status returned while Marathon can't be called
+	 * because its circuit breaker is open or too many calls are in progress. With 0, the status request fails
+	 * instead.
+	 */
+	private long statusFallbackMaxAge = 300000L;
+
+	/**
+	 * Configuration of the HTTP connections to the Marathon REST endpoint.
+	 */
+	private HttpClientProperties http = new HttpClientProperties();
+
+	/**
+	 * Circuit breaker of the calls to Marathon.
+	 */
+	private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+
+	/**
+	 * Limit of the concurrent HTTP calls to Marathon, not counting calls waiting for a rate limit or a retry.
+	 */
+	private BulkheadProperties bulkhead = new BulkheadProperties();
+
 	public double getMemory() {
 		return memory;
 	}
@@ -126,4 +216,140 @@ public class MarathonAppDeployerProperties {
 	public void setConstraints(Set<Constraint> constraints) {
 		this.constraints = constraints;
 	}
+
+	public int getInstanceConcurrency() {
+		return instanceConcurrency;
+	}
+
+	public void setInstanceConcurrency(int instanceConcurrency) {
+		this.instanceConcurrency = instanceConcurrency;
+	}
+
+	public IndexedDeploymentStrategy getIndexedDeploymentStrategy() {
+		return indexedDeploymentStrategy;
+	}
+
+	public void setIndexedDeploymentStrategy(IndexedDeploymentStrategy indexedDeploymentStrategy) {
+		this.indexedDeploymentStrategy = indexedDeploymentStrategy;
+	}
+
+	public boolean isUndeployForce() {
+		return undeployForce;
+	}
+
+	public void setUndeployForce(boolean undeployForce) {
+		this.undeployForce = undeployForce;
+	}
+
+	public int getAsyncPoolSize() {
+		return asyncPoolSize;
+	}
+
+	public void setAsyncPoolSize(int asyncPoolSize) {
+		this.asyncPoolSize = asyncPoolSize;
+	}
+
+	public long getStatusCacheTtl() {
+		return statusCacheTtl;
+	}
+
+	public void setStatusCacheTtl(long statusCacheTtl) {
+		this.statusCacheTtl = statusCacheTtl;
+	}
+
+	public int getStatusCacheMaxEntries() {
+		return statusCacheMaxEntries;
+	}
+
+	public void setStatusCacheMaxEntries(int statusCacheMaxEntries) {
+		this.statusCacheMaxEntries = statusCacheMaxEntries;
+	}
+
+	public boolean isEventStreamEnabled() {
+		return eventStreamEnabled;
+	}
+
+	public void setEventStreamEnabled(boolean eventStreamEnabled) {
+		this.eventStreamEnabled = eventStreamEnabled;
+	}
+
+	public long getEventStreamReconnectDelay() {
+		return eventStreamReconnectDelay;
+	}
+
+	public void setEventStreamReconnectDelay(long eventStreamReconnectDelay) {
+		this.eventStreamReconnectDelay = eventStreamReconnectDelay;
+	}
+
+	public long getEventStreamStatusMaxAge() {
+		return eventStreamStatusMaxAge;
+	}
+
+	public void setEventStreamStatusMaxAge(long eventStreamStatusMaxAge) {
+		this.eventStreamStatusMaxAge = eventStreamStatusMaxAge;
+	}
+
+	public boolean isDeploymentLatencyTracking() {
+		return deploymentLatencyTracking;
+	}
+
+	public void setDeploymentLatencyTracking(boolean deploymentLatencyTracking) {
+		this.deploymentLatencyTracking = deploymentLatencyTracking;
+	}
+
+	public int getDeploymentLatencyMaxTracked() {
+		return deploymentLatencyMaxTracked;
+	}
+
+	public void setDeploymentLatencyMaxTracked(int deploymentLatencyMaxTracked) {
+		this.deploymentLatencyMaxTracked = deploymentLatencyMaxTracked;
+	}
+
+	public long getStatusFallbackMaxAge() {
+		return statusFallbackMaxAge;
+	}
+
+	public void setStatusFallbackMaxAge(long statusFallbackMaxAge) {
+		this.statusFallbackMaxAge = statusFallbackMaxAge;
+	}
+
+	public HttpClientProperties getHttp() {
+		return http;
+	}
+
+	public void setHttp(HttpClientProperties http) {
+		this.http = http;
+	}
+
+	public CircuitBreakerProperties getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	public void setCircuitBreaker(CircuitBreakerProperties circuitBreaker) {
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	public BulkheadProperties getBulkhead() {
+		return bulkhead;
+	}
+
+	public void setBulkhead(BulkheadProperties bulkhead) {
+		this.bulkhead = bulkhead;
+	}
+
+	/**
+	 * Ways of creating the instances of an indexed deployment.
+	 */
+	public enum IndexedDeploymentStrategy {
+
+		/**
+		 * Create one app per instance, each with its own request.
+		 */
+		APPS,
+
+		/**
+		 * Create all instances as apps of one group, with a single request.
+		 */
+		GROUP
+	}
 }
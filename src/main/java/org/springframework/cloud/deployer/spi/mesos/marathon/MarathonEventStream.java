@@ -0,0 +1,294 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.marathon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * Client for the Marathon {@code /v2/events} server-sent event stream. Events that may change the
+ * status of apps are reported to a {@link Listener} together with the ids of the affected apps.
+ * The stream is read on a dedicated daemon thread, and re-opened with an increasing delay whenever
+ * it drops.
+ */
+public class MarathonEventStream {
+
+	private static final Log logger = LogFactory.getLog(MarathonEventStream.class);
+
+	static final Set<String> STATUS_EVENT_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			"status_update_event", "health_status_changed_event", "failed_health_check_event",
+			"app_terminated_event", "group_change_success", "deployment_info", "deployment_success",
+			"deployment_failed", "deployment_step_success", "deployment_step_failure")));
+
+	private static final long MAX_RECONNECT_DELAY = 30000L;
+
+	private final String endpoint;
+
+	private final Map<String, String> headers;
+
+	private final long reconnectDelay;
+
+	private final int connectTimeout;
+
+	private final int readTimeout;
+
+	private volatile boolean running;
+
+	private volatile HttpURLConnection connection;
+
+	private Thread thread;
+
+	/**
+	 * @param apiEndpoint the Marathon REST endpoint
+	 * @param headers additional request headers, for example for authorization
+	 * @param reconnectDelay initial delay in milliseconds before re-opening a dropped stream
+	 * @param connectTimeout connect timeout in milliseconds
+	 * @param readTimeout time in milliseconds without any data after which the stream is re-opened, so that
+	 * a connection that silently stopped delivering events doesn't block the stream forever
+	 */
+	public MarathonEventStream(String apiEndpoint, Map<String, String> headers, long reconnectDelay,
+			int connectTimeout, int readTimeout) {
+		this.endpoint = apiEndpoint.replaceAll("/+$", "") + "/v2/events";
+		this.headers = headers != null ? new HashMap<>(headers) : Collections.emptyMap();
+		this.reconnectDelay = reconnectDelay;
+		this.connectTimeout = connectTimeout;
+		this.readTimeout = readTimeout;
+	}
+
+	/**
+	 * Start reading the stream in the background, reporting to the given listener.
+	 */
+	public synchronized void start(Listener listener) {
+		Assert.notNull(listener, "listener must not be null");
+		Assert.state(thread == null, "Event stream already started");
+		running = true;
+		thread = new Thread(() -> run(listener), "marathon-events");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stop reading the stream and close the current connection, if any.
+	 */
+	public synchronized void stop() {
+		running = false;
+		HttpURLConnection current = connection;
+		if (current != null) {
+			current.disconnect();
+		}
+		if (thread != null) {
+			thread.interrupt();
+			thread = null;
+		}
+	}
+
+	private void run(Listener listener) {
+		long delay = reconnectDelay;
+		while (running) {
+			boolean connected = false;
+			try {
+				HttpURLConnection current = (HttpURLConnection) new URL(endpoint).openConnection();
+				current.setRequestProperty("Accept", "text/event-stream");
+				for (Map.Entry<String, String> header : headers.entrySet()) {
+					current.setRequestProperty(header.getKey(), header.getValue());
+				}
+				current.setConnectTimeout(connectTimeout);
+				current.setReadTimeout(readTimeout);
+				connection = current;
+				if (current.getResponseCode() != HttpURLConnection.HTTP_OK) {
+					throw new IOException("Unexpected response " + current.getResponseCode() + " from " + endpoint);
+				}
+				logger.info(String.format("Connected to Marathon event stream at %s", endpoint));
+				connected = true;
+				delay = reconnectDelay;
+				listener.onConnected();
+				read(current, listener);
+			}
+			catch (SocketTimeoutException e) {
+				if (running && connected) {
+					logger.debug(String.format("No data from Marathon event stream at %s for %d ms, re-opening it",
+							endpoint, readTimeout));
+				}
+				else if (running) {
+					logger.warn(String.format("Marathon event stream at %s failed: %s", endpoint, e.getMessage()));
+				}
+			}
+			catch (IOException | RuntimeException e) {
+				if (running) {
+					logger.warn(String.format("Marathon event stream at %s failed: %s", endpoint, e.getMessage()));
+				}
+			}
+			finally {
+				HttpURLConnection current = connection;
+				connection = null;
+				if (current != null) {
+					current.disconnect();
+				}
+				if (connected) {
+					listener.onDisconnected();
+				}
+			}
+			if (running) {
+				try {
+					Thread.sleep(delay);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				delay = Math.min(delay * 2, MAX_RECONNECT_DELAY);
+			}
+		}
+	}
+
+	private void read(HttpURLConnection connection, Listener listener) throws IOException {
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+			String eventType = null;
+			StringBuilder data = new StringBuilder();
+			String line;
+			while (running && (line = reader.readLine()) != null) {
+				if (line.isEmpty()) {
+					dispatch(eventType, data, listener);
+					eventType = null;
+					data.setLength(0);
+				}
+				else if (line.startsWith("event:")) {
+					eventType = line.substring(6).trim();
+				}
+				else if (line.startsWith("data:")) {
+					if (data.length() > 0) {
+						data.append('\n');
+					}
+					data.append(line.substring(5).trim());
+				}
+			}
+			if (data.length() > 0) {
+				dispatch(eventType, data, listener);
+			}
+		}
+	}
+
+	private void dispatch(String eventType, StringBuilder data, Listener listener) {
+		if (data.length() == 0) {
+			return;
+		}
+		JsonElement json;
+		try {
+			json = new JsonParser().parse(data.toString());
+		}
+		catch (RuntimeException e) {
+			logger.debug(String.format("Ignoring malformed event data: %s", data));
+			return;
+		}
+		if (!json.isJsonObject()) {
+			return;
+		}
+		JsonObject event = json.getAsJsonObject();
+		if (eventType == null && event.has("eventType")) {
+			eventType = event.get("eventType").getAsString();
+		}
+		if (eventType == null || !STATUS_EVENT_TYPES.contains(eventType)) {
+			return;
+		}
+		Set<String> appIds = new HashSet<>();
+		addString(event, "appId", appIds);
+		addString(event, "groupId", appIds);
+		if (event.has("plan") && event.get("plan").isJsonObject()) {
+			JsonElement steps = event.getAsJsonObject("plan").get("steps");
+			if (steps != null && steps.isJsonArray()) {
+				for (JsonElement step : steps.getAsJsonArray()) {
+					addActionApps(step, appIds);
+				}
+			}
+		}
+		addActionApps(event.get("currentStep"), appIds);
+		if (!appIds.isEmpty()) {
+			if (logger.isDebugEnabled()) {
+				logger.debug(String.format("Received %s for %s", eventType, appIds));
+			}
+			listener.onEvent(eventType, appIds);
+		}
+	}
+
+	private static void addActionApps(JsonElement step, Set<String> appIds) {
+		if (step == null || !step.isJsonObject()) {
+			return;
+		}
+		JsonElement actions = step.getAsJsonObject().get("actions");
+		if (actions != null && actions.isJsonArray()) {
+			JsonArray array = actions.getAsJsonArray();
+			for (JsonElement action : array) {
+				if (action.isJsonObject()) {
+					addString(action.getAsJsonObject(), "app", appIds);
+				}
+			}
+		}
+	}
+
+	private static void addString(JsonObject object, String member, Set<String> values) {
+		JsonElement value = object.get(member);
+		if (value != null && value.isJsonPrimitive()) {
+			values.add(value.getAsString());
+		}
+	}
+
+	/**
+	 * Callback for the events of a {@link MarathonEventStream}.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called once the stream is open; events received from now on are reported.
+		 */
+		void onConnected();
+
+		/**
+		 * Called when an event that may change the status of apps is received.
+		 *
+		 * @param eventType the Marathon event type
+		 * @param appIds the ids of the affected apps or groups
+		 */
+		void onEvent(String eventType, Set<String> appIds);
+
+		/**
+		 * Called when the stream dropped; events may be missed until {@link #onConnected()} is called again.
+		 */
+		void onDisconnected();
+
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.marathon;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+
+/**
+ * Cache of app statuses with a per-lookup maximum age and a bounded number of entries, evicting the least
+ * recently used entry when full. Concurrent lookups of a status that isn't cached share a single fetch.
+ * A fetch that overlaps with an invalidation of its id still returns its result to its callers, but
+ * doesn't store it.
+ * <p>
+ * With a retention, fetched statuses are kept for that long even if the lookups don't serve them, so that
+ * {@link #getIfPresent(String, long)} can still return the last known status when it can't be fetched.
+ */
+public class StatusCache {
+
+	private final int maxEntries;
+
+	private final long retention;
+
+	private final Map<String, Entry> entries;
+
+	private final Map<String, CompletableFuture<AppStatus>> inFlight = new ConcurrentHashMap<>();
+
+	private long invalidations;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final AtomicLong coalesced = new AtomicLong();
+
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * @param maxEntries the maximum number of cached statuses
+	 */
+	public StatusCache(int maxEntries) {
+		this(maxEntries, 0L);
+	}
+
+	/**
+	 * @param maxEntries the maximum number of cached statuses
+	 * @param retention the time in milliseconds fetched statuses are kept regardless of the maximum age of
+	 * the lookups
+	 */
+	public StatusCache(int maxEntries, long retention) {
+		this.maxEntries = maxEntries;
+		this.retention = retention;
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				if (size() > StatusCache.this.maxEntries) {
+					evictions.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Return the cached status for the given id if it is at most {@code maxAge} milliseconds old, or
+	 * fetch it with the given loader. A {@code maxAge} of zero or less always fetches, but still shares
+	 * the fetch with concurrent lookups.
+	 */
+	public AppStatus get(String id, long maxAge, Supplier<AppStatus> loader) {
+		if (maxAge > 0) {
+			AppStatus status = getIfPresent(id, maxAge);
+			if (status != null) {
+				hits.incrementAndGet();
+				return status;
+			}
+		}
+		CompletableFuture<AppStatus> fetch = new CompletableFuture<>();
+		CompletableFuture<AppStatus> existing = inFlight.putIfAbsent(id, fetch);
+		if (existing != null) {
+			coalesced.incrementAndGet();
+			return await(existing);
+		}
+		misses.incrementAndGet();
+		long generation;
+		synchronized (entries) {
+			generation = invalidations;
+		}
+		try {
+			AppStatus status = loader.get();
+			if (maxAge > 0 || retention > 0) {
+				synchronized (entries) {
+					if (generation == invalidations) {
+						entries.put(id, new Entry(status));
+					}
+				}
+			}
+			fetch.complete(status);
+			return status;
+		}
+		catch (RuntimeException | Error e) {
+			fetch.completeExceptionally(e);
+			throw e;
+		}
+		finally {
+			inFlight.remove(id, fetch);
+		}
+	}
+
+	/**
+	 * Return the cached status for the given id if it is at most {@code maxAge} milliseconds old, or
+	 * {@code null}.
+	 */
+	public AppStatus getIfPresent(String id, long maxAge) {
+		synchronized (entries) {
+			Entry entry = entries.get(id);
+			if (entry == null) {
+				return null;
+			}
+			long age = System.nanoTime() - entry.fetchedAt;
+			if (age >= TimeUnit.MILLISECONDS.toNanos(maxAge)) {
+				if (age >= TimeUnit.MILLISECONDS.toNanos(retention)) {
+					entries.remove(id);
+				}
+				return null;
+			}
+			return entry.status;
+		}
+	}
+
+	/**
+	 * Remove the statuses whose ids match the given predicate, and prevent fetches in progress from
+	 * storing their results.
+	 */
+	public void invalidateMatching(Predicate<String> ids) {
+		synchronized (entries) {
+			invalidations++;
+			entries.keySet().removeIf(ids);
+		}
+		inFlight.keySet().removeIf(ids);
+	}
+
+	/**
+	 * Remove all statuses, and prevent fetches in progress from storing their results.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			invalidations++;
+			entries.clear();
+		}
+		inFlight.clear();
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Number of lookups answered from the cache.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Number of lookups that fetched the status.
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Number of lookups that shared the fetch of a concurrent lookup.
+	 */
+	public long getCoalesced() {
+		return coalesced.get();
+	}
+
+	/**
+	 * Number of statuses evicted to stay within the maximum number of entries.
+	 */
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	@Override
+	public String toString() {
+		return String.format("StatusCache[size=%d, hits=%d, misses=%d, coalesced=%d, evictions=%d]",
+				size(), getHits(), getMisses(), getCoalesced(), getEvictions());
+	}
+
+	private static AppStatus await(CompletableFuture<AppStatus> fetch) {
+		try {
+			return fetch.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private static class Entry {
+
+		private final AppStatus status;
+
+		private final long fetchedAt = System.nanoTime();
+
+		Entry(AppStatus status) {
+			this.status = status;
+		}
+	}
+}
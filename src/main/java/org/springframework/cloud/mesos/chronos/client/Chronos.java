@@ -20,10 +20,13 @@ import java.util.List;
 
 import org.springframework.cloud.mesos.chronos.client.model.DockerJob;
 import org.springframework.cloud.mesos.chronos.client.model.Job;
+import org.springframework.cloud.mesos.chronos.client.model.JobGraph;
+import org.springframework.cloud.mesos.chronos.client.model.JobNames;
 
 import feign.Headers;
 import feign.Param;
 import feign.RequestLine;
+import feign.Response;
 
 /**
  * Interface defining REST end-points to be used when interacting with Chronos
@@ -35,10 +38,36 @@ public interface Chronos {
 	@RequestLine("GET /v1/scheduler/jobs")
 	List<Job> getJobs() throws ChronosException;
 
+	@RequestLine("GET /v1/scheduler/jobs")
+	JobNames getJobNames() throws ChronosException;
+
+	@RequestLine("GET /v1/scheduler/jobs/search?name={name}")
+	List<Job> searchJobs(@Param("name") String name) throws ChronosException;
+
+	/**
+	 * Search for jobs whose name contains the given name, returning the undecoded response so that it can be
+	 * read as a stream with {@link JobListReader}. Error statuses are returned as is, and the caller must close
+	 * the body.
+	 */
+	@RequestLine("GET /v1/scheduler/jobs/search?name={name}")
+	Response streamSearchJobs(@Param("name") String name) throws ChronosException;
+
 	@RequestLine("GET /v1/scheduler/graph/csv")
 	@Headers("Accept: text/plain")
 	String getGraphCsv() throws ChronosException;
 
+	/**
+	 * Get the job graph as CSV, returning the undecoded response so that it can be read as a stream with
+	 * {@link GraphCsvReader}. Error statuses are returned as is, and the caller must close the body.
+	 */
+	@RequestLine("GET /v1/scheduler/graph/csv")
+	@Headers("Accept: text/plain")
+	Response streamGraphCsv() throws ChronosException;
+
+	@RequestLine("GET /v1/scheduler/graph/csv")
+	@Headers("Accept: text/plain")
+	JobGraph getGraph() throws ChronosException;
+
 	@RequestLine("POST /v1/scheduler/iso8601")
 	void createJob(Job job) throws ChronosException;
 
@@ -20,17 +20,26 @@ import static java.util.Arrays.asList;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.springframework.cloud.mesos.chronos.client.model.AbstractModel;
+import org.springframework.cloud.mesos.chronos.client.model.JobGraph;
+import org.springframework.cloud.mesos.chronos.client.model.JobNames;
 import org.springframework.util.MimeTypeUtils;
 
+import feign.Client;
 import feign.Feign;
 import feign.Feign.Builder;
 import feign.FeignException;
+import feign.Request;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import feign.Response;
+import feign.Retryer;
 import feign.auth.BasicAuthRequestInterceptor;
 import feign.codec.DecodeException;
 import feign.codec.Decoder;
@@ -46,6 +55,12 @@ import feign.gson.GsonEncoder;
  */
 public class ChronosClient {
 
+	/**
+	 * The path segments of the Chronos API used here that are not job names.
+	 */
+	public static final Set<String> API_PATH_SEGMENTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+			"v1", "scheduler", "jobs", "search", "graph", "csv", "iso8601", "dependency", "job", "task", "kill")));
+
 	static class ChronosHeadersInterceptor implements RequestInterceptor {
 		@Override
 		public void apply(RequestTemplate template) {
@@ -71,7 +86,32 @@ public class ChronosClient {
 	 * @param endpoint URL for Chronos API
 	 */
 	public static Chronos getInstance(String endpoint, RequestInterceptor... interceptors) {
+		return getInstance(endpoint, new Client.Default(null, null), new Request.Options(), interceptors);
+	}
+
+	/**
+	 * Creates a Chronos client proxy that sends its requests with the given Feign {@link Client}, for example
+	 * a pooled one created by {@link org.springframework.cloud.mesos.client.HttpTransport}.
+	 *
+	 * @param endpoint URL for Chronos API
+	 */
+	public static Chronos getInstance(String endpoint, Client client, Request.Options options,
+			RequestInterceptor... interceptors) {
+		return getInstance(endpoint, client, options, new Retryer.Default(), interceptors);
+	}
+
+	/**
+	 * Creates a Chronos client proxy that sends its requests with the given Feign {@link Client} and retries
+	 * them as decided by the given {@link Retryer}, for example never when the client retries by itself.
+	 *
+	 * @param endpoint URL for Chronos API
+	 */
+	public static Chronos getInstance(String endpoint, Client client, Request.Options options, Retryer retryer,
+			RequestInterceptor... interceptors) {
 		Builder b = Feign.builder()
+				.client(client)
+				.options(options)
+				.retryer(retryer)
 				.encoder(new GsonEncoder(AbstractModel.GSON))
 				.decoder(new MultiDecoder())
 				.errorDecoder(new ChronosErrorDecoder());
@@ -97,6 +137,18 @@ public class ChronosClient {
 
 		@Override
 		public Object decode(Response response, Type type) throws IOException, DecodeException, FeignException {
+			if (JobGraph.class.equals(type)) {
+				if (response.body() == null) {
+					return new JobGraph(Collections.emptyMap());
+				}
+				return GraphCsvReader.readAll(response.body().asReader());
+			}
+			if (JobNames.class.equals(type)) {
+				if (response.body() == null) {
+					return new JobNames(Collections.emptySet());
+				}
+				return JobListReader.readNames(response.body().asReader());
+			}
 			Collection<String> contentTypes = response.headers().get("Content-Type");
 			if (contentTypes.contains(MimeTypeUtils.TEXT_PLAIN.toString())) {
 				return defaultDecoder.decode(response, type);
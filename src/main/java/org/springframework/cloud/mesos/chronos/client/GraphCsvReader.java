@@ -0,0 +1,197 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.chronos.client;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.cloud.mesos.chronos.client.model.JobGraph;
+
+/**
+ * Streaming reader for the CSV representation of the Chronos job graph, as returned by
+ * {@code /v1/scheduler/graph/csv}. Rows look like {@code node,<name>,<lastStatus>,<state>} or
+ * {@code link,<parent>,<child>}; only {@code node} rows are of interest.
+ * <p>
+ * The body is consumed in fixed size chunks without regular expressions, and strings are only
+ * materialized for the {@code node} rows that are actually returned.
+ */
+public final class GraphCsvReader {
+
+	private static final char[] NODE = "node".toCharArray();
+
+	private static final int FIELDS = 4;
+
+	private final Reader reader;
+
+	private final char[] buffer = new char[8192];
+
+	private int position;
+
+	private int limit;
+
+	private char[] line = new char[256];
+
+	private int lineLength;
+
+	private final int[] starts = new int[FIELDS];
+
+	private final int[] ends = new int[FIELDS];
+
+	private GraphCsvReader(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Scan the graph for the {@code node} row of the given job, stopping as soon as it is found.
+	 *
+	 * @param reader the graph CSV
+	 * @param name the job name
+	 * @return the node, or {@code null} if the graph has no row for that job
+	 */
+	public static JobGraph.Node find(Reader reader, String name) throws IOException {
+		GraphCsvReader csv = new GraphCsvReader(reader);
+		while (csv.nextNode()) {
+			if (csv.fieldEquals(1, name)) {
+				return csv.toNode();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Read all {@code node} rows of the graph in a single pass. When a job appears more than once
+	 * the first row wins.
+	 *
+	 * @param reader the graph CSV
+	 * @return the graph
+	 */
+	public static JobGraph readAll(Reader reader) throws IOException {
+		GraphCsvReader csv = new GraphCsvReader(reader);
+		Map<String, JobGraph.Node> nodes = new HashMap<>();
+		while (csv.nextNode()) {
+			JobGraph.Node node = csv.toNode();
+			nodes.putIfAbsent(node.getName(), node);
+		}
+		return new JobGraph(nodes);
+	}
+
+	private boolean nextNode() throws IOException {
+		while (readLine()) {
+			if (startsWith(NODE) && splitFields() == FIELDS) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean readLine() throws IOException {
+		lineLength = 0;
+		boolean read = false;
+		while (true) {
+			if (position >= limit) {
+				limit = reader.read(buffer, 0, buffer.length);
+				position = 0;
+				if (limit <= 0) {
+					limit = 0;
+					return read;
+				}
+			}
+			read = true;
+			int end = position;
+			while (end < limit && buffer[end] != '\n') {
+				end++;
+			}
+			append(position, end);
+			if (end < limit) {
+				position = end + 1;
+				if (lineLength > 0 && line[lineLength - 1] == '\r') {
+					lineLength--;
+				}
+				return true;
+			}
+			position = limit;
+		}
+	}
+
+	private void append(int from, int to) {
+		int length = to - from;
+		if (lineLength + length > line.length) {
+			char[] larger = new char[Math.max(line.length * 2, lineLength + length)];
+			System.arraycopy(line, 0, larger, 0, lineLength);
+			line = larger;
+		}
+		System.arraycopy(buffer, from, line, lineLength, length);
+		lineLength += length;
+	}
+
+	private boolean startsWith(char[] prefix) {
+		if (lineLength < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (line[i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int splitFields() {
+		int count = 0;
+		int start = 0;
+		for (int i = 0; i <= lineLength && count < FIELDS; i++) {
+			if (i == lineLength || line[i] == ',') {
+				int s = start;
+				int e = i;
+				while (s < e && Character.isWhitespace(line[s])) {
+					s++;
+				}
+				while (e > s && Character.isWhitespace(line[e - 1])) {
+					e--;
+				}
+				starts[count] = s;
+				ends[count] = e;
+				count++;
+				start = i + 1;
+			}
+		}
+		return count;
+	}
+
+	private boolean fieldEquals(int field, String value) {
+		int start = starts[field];
+		if (ends[field] - start != value.length()) {
+			return false;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (line[start + i] != value.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String field(int field) {
+		return new String(line, starts[field], ends[field] - starts[field]);
+	}
+
+	private JobGraph.Node toNode() {
+		return new JobGraph.Node(field(1), field(2), field(3));
+	}
+}
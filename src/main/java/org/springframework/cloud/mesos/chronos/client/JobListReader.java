@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.chronos.client;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import org.springframework.cloud.mesos.chronos.client.model.AbstractModel;
+import org.springframework.cloud.mesos.chronos.client.model.Job;
+import org.springframework.cloud.mesos.chronos.client.model.JobNames;
+
+/**
+ * Streaming reader for the Chronos job list returned by {@code /v1/scheduler/jobs}, which avoids
+ * binding every job of the list to a {@link Job}.
+ */
+public final class JobListReader {
+
+	private JobListReader() {
+	}
+
+	/**
+	 * Read only the names of the jobs in the list, skipping all other fields.
+	 */
+	public static JobNames readNames(Reader reader) throws IOException {
+		Set<String> names = new HashSet<>();
+		JsonReader json = new JsonReader(reader);
+		if (json.peek() != JsonToken.BEGIN_ARRAY) {
+			json.skipValue();
+			return new JobNames(names);
+		}
+		json.beginArray();
+		while (json.hasNext()) {
+			if (json.peek() != JsonToken.BEGIN_OBJECT) {
+				json.skipValue();
+				continue;
+			}
+			json.beginObject();
+			while (json.hasNext()) {
+				if ("name".equals(json.nextName()) && json.peek() == JsonToken.STRING) {
+					names.add(json.nextString());
+				}
+				else {
+					json.skipValue();
+				}
+			}
+			json.endObject();
+		}
+		json.endArray();
+		return new JobNames(names);
+	}
+
+	/**
+	 * Find the job with the given name, binding only that job and stopping at it. The other jobs are
+	 * skipped from their name on; only the fields listed before the name, which Chronos writes first,
+	 * are held until the name is known.
+	 *
+	 * @return the job, or {@code null} if the list holds no job with that name
+	 */
+	public static Job find(Reader reader, String name) throws IOException {
+		JsonReader json = new JsonReader(reader);
+		if (json.peek() != JsonToken.BEGIN_ARRAY) {
+			return null;
+		}
+		JsonParser parser = new JsonParser();
+		json.beginArray();
+		while (json.hasNext()) {
+			if (json.peek() != JsonToken.BEGIN_OBJECT) {
+				json.skipValue();
+				continue;
+			}
+			JsonObject job = readIfNamed(json, name, parser);
+			if (job != null) {
+				return AbstractModel.GSON.fromJson(job, Job.class);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Read the next job of the list if it has the given name, or skip it otherwise.
+	 *
+	 * @return the fields of the job, or {@code null} if it has another name
+	 */
+	private static JsonObject readIfNamed(JsonReader json, String name, JsonParser parser) throws IOException {
+		JsonObject fields = null;
+		json.beginObject();
+		while (json.hasNext()) {
+			String field = json.nextName();
+			if (!"name".equals(field)) {
+				if (fields == null) {
+					fields = new JsonObject();
+				}
+				fields.add(field, parser.parse(json));
+				continue;
+			}
+			String jobName = null;
+			if (json.peek() == JsonToken.STRING) {
+				jobName = json.nextString();
+			}
+			else {
+				json.skipValue();
+			}
+			if (!name.equals(jobName)) {
+				while (json.hasNext()) {
+					json.nextName();
+					json.skipValue();
+				}
+				break;
+			}
+			JsonObject job = fields != null ? fields : new JsonObject();
+			job.addProperty(field, jobName);
+			while (json.hasNext()) {
+				job.add(json.nextName(), parser.parse(json));
+			}
+			json.endObject();
+			return job;
+		}
+		json.endObject();
+		return null;
+	}
+}
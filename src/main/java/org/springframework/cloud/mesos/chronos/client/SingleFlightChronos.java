@@ -0,0 +1,253 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.chronos.client;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import feign.Response;
+
+import org.springframework.cloud.mesos.chronos.client.model.DockerJob;
+import org.springframework.cloud.mesos.chronos.client.model.Job;
+import org.springframework.cloud.mesos.chronos.client.model.JobGraph;
+import org.springframework.cloud.mesos.chronos.client.model.JobNames;
+import org.springframework.cloud.mesos.metrics.MetricsRegistry;
+
+/**
+ * {@link Chronos} decorator that lets concurrent calls of the same read-only request share a single
+ * in-flight call to the delegate, and its result or failure. Calls that start after the shared call
+ * completed issue a new request, so no result is ever cached. Calls that start after a job was created,
+ * started or deleted through this decorator don't share a call that was already in flight, since its
+ * result may not reflect the change. Since the result is shared, callers must not modify it. Streamed
+ * responses can't be shared, so they are always requested from the delegate.
+ * <p>
+ * The calls of the shared requests are counted in {@value #CALLS}, and the ones answered by a call
+ * already in flight in {@value #DEDUPLICATED}, both tagged with the {@code client} name and the
+ * {@code request}, for example {@code getJobNames}.
+ */
+public class SingleFlightChronos implements Chronos {
+
+	public static final String CALLS = "mesos.client.single-flight.calls";
+
+	public static final String DEDUPLICATED = "mesos.client.single-flight.deduplicated";
+
+	private final Chronos delegate;
+
+	private final MetricsRegistry registry;
+
+	private final String clientName;
+
+	private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Incremented whenever a write through this decorator completed.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	private final AtomicLong calls = new AtomicLong();
+
+	private final AtomicLong deduplicatedCalls = new AtomicLong();
+
+	public SingleFlightChronos(Chronos delegate) {
+		this(delegate, MetricsRegistry.NOOP, "chronos");
+	}
+
+	/**
+	 * @param delegate the client sending the requests
+	 * @param registry the registry to count the calls in
+	 * @param clientName the value of the {@code client} tag
+	 */
+	public SingleFlightChronos(Chronos delegate, MetricsRegistry registry, String clientName) {
+		this.delegate = delegate;
+		this.registry = registry;
+		this.clientName = clientName;
+	}
+
+	@Override
+	public List<Job> getJobs() throws ChronosException {
+		return share("getJobs", "getJobs", delegate::getJobs);
+	}
+
+	@Override
+	public JobNames getJobNames() throws ChronosException {
+		return share("getJobNames", "getJobNames", delegate::getJobNames);
+	}
+
+	@Override
+	public List<Job> searchJobs(String name) throws ChronosException {
+		return share("searchJobs", "searchJobs:" + name, () -> delegate.searchJobs(name));
+	}
+
+	@Override
+	public Response streamSearchJobs(String name) throws ChronosException {
+		return delegate.streamSearchJobs(name);
+	}
+
+	@Override
+	public String getGraphCsv() throws ChronosException {
+		return share("getGraphCsv", "getGraphCsv", delegate::getGraphCsv);
+	}
+
+	@Override
+	public JobGraph getGraph() throws ChronosException {
+		return share("getGraph", "getGraph", delegate::getGraph);
+	}
+
+	@Override
+	public Response streamGraphCsv() throws ChronosException {
+		return delegate.streamGraphCsv();
+	}
+
+	@Override
+	public void createJob(Job job) throws ChronosException {
+		try {
+			delegate.createJob(job);
+		}
+		finally {
+			generation.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void createDockerJob(DockerJob job) throws ChronosException {
+		try {
+			delegate.createDockerJob(job);
+		}
+		finally {
+			generation.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void startJob(String jobName) throws ChronosException {
+		try {
+			delegate.startJob(jobName);
+		}
+		finally {
+			generation.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void deleteJob(String jobName) throws ChronosException {
+		try {
+			delegate.deleteJob(jobName);
+		}
+		finally {
+			generation.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void deleteJobTasks(String jobName) throws ChronosException {
+		try {
+			delegate.deleteJobTasks(jobName);
+		}
+		finally {
+			generation.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Number of calls of the shared requests, including the deduplicated ones.
+	 */
+	public long getCalls() {
+		return calls.get();
+	}
+
+	/**
+	 * Number of calls answered by a call already in flight, without a request of their own.
+	 */
+	public long getDeduplicatedCalls() {
+		return deduplicatedCalls.get();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T share(String request, String key, ChronosCall<T> call) throws ChronosException {
+		calls.incrementAndGet();
+		registry.increment(CALLS, "client", clientName, "request", request);
+		Flight flight = new Flight(generation.get());
+		Flight existing;
+		while ((existing = inFlight.putIfAbsent(key, flight)) != null) {
+			if (existing.generation >= flight.generation) {
+				deduplicatedCalls.incrementAndGet();
+				registry.increment(DEDUPLICATED, "client", clientName, "request", request);
+				return (T) await(existing.result);
+			}
+			// started before a write that completed since, so its result may be outdated
+			if (inFlight.replace(key, existing, flight)) {
+				break;
+			}
+		}
+		try {
+			T result = call.call();
+			flight.result.complete(result);
+			return result;
+		}
+		catch (ChronosException | RuntimeException | Error e) {
+			flight.result.completeExceptionally(e);
+			throw e;
+		}
+		finally {
+			inFlight.remove(key, flight);
+		}
+	}
+
+	private static Object await(CompletableFuture<Object> result) throws ChronosException {
+		try {
+			return result.join();
+		}
+		catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof ChronosException) {
+				throw (ChronosException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * A call in flight, and the write generation it started in.
+	 */
+	private static class Flight {
+
+		private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+		private final long generation;
+
+		Flight(long generation) {
+			this.generation = generation;
+		}
+	}
+
+	@FunctionalInterface
+	private interface ChronosCall<T> {
+
+		T call() throws ChronosException;
+
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.chronos.client.model;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Class holding the {@code node} rows of the Chronos job graph, keyed by job name.
+ */
+public class JobGraph {
+
+	private final Map<String, Node> nodes;
+
+	public JobGraph(Map<String, Node> nodes) {
+		this.nodes = Collections.unmodifiableMap(nodes);
+	}
+
+	public Node getNode(String name) {
+		return nodes.get(name);
+	}
+
+	public Map<String, Node> getNodes() {
+		return nodes;
+	}
+
+	public int size() {
+		return nodes.size();
+	}
+
+	/**
+	 * A single {@code node} row of the graph, giving the result of the last run and the current
+	 * state of a job.
+	 */
+	public static class Node {
+
+		private final String name;
+
+		private final String lastStatus;
+
+		private final String state;
+
+		public Node(String name, String lastStatus, String state) {
+			this.name = name;
+			this.lastStatus = lastStatus;
+			this.state = state;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public String getLastStatus() {
+			return lastStatus;
+		}
+
+		public String getState() {
+			return state;
+		}
+
+		@Override
+		public String toString() {
+			return "node," + name + "," + lastStatus + "," + state;
+		}
+	}
+}
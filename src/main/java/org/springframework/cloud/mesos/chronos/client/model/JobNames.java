@@ -0,0 +1,45 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.chronos.client.model;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Class holding only the names of the jobs known to Chronos, for callers that don't need the full
+ * {@link Job} definitions.
+ */
+public class JobNames {
+
+	private final Set<String> names;
+
+	public JobNames(Set<String> names) {
+		this.names = Collections.unmodifiableSet(names);
+	}
+
+	public boolean contains(String name) {
+		return names.contains(name);
+	}
+
+	public Set<String> getNames() {
+		return names;
+	}
+
+	public int size() {
+		return names.size();
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.mesos.client;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.cloud.mesos.metrics.MetricsRegistry;
+
+/**
+ * Limits the number of concurrent calls to a remote service, so that a service that stopped answering
+ * holds at most that many caller threads. Calls that can't get a permit within the configured wait are
+ * rejected, and counted in {@value #REJECTED} tagged with the {@code client} name.
+ */
+public class Bulkhead {
+
+	public static final String REJECTED = "mesos.client.bulkhead.rejected";
+
+	private final Semaphore permits;
+
+	private final long maxWait;
+
+	private final MetricsRegistry registry;
+
+	private final String clientName;
+
+	/**
+	 * @param properties the maximum number of concurrent calls and wait for a permit
+	 * @param registry the registry to count the rejected calls in
+	 * @param clientName the value of the {@code client} tag, for example {@code marathon}
+	 */
+	public Bulkhead(BulkheadProperties properties, MetricsRegistry registry, String clientName) {
+		this.permits = new Semaphore(Math.max(1, properties.getMaxConcurrentCalls()), true);
+		this.maxWait = properties.getMaxWait();
+		this.registry = registry;
+		this.clientName = clientName;
+	}
+
+	/**
+	 * Take a permit for a call, to be given back with {@link #release()} once it completed.
+	 *
+	 * @throws CallNotPermittedException if no permit was available within the maximum wait, or the
+	 * calling thread was interrupted while waiting
+	 */
+	public void acquire() {
+		boolean acquired;
+		try {
+			acquired = maxWait > 0 ? permits.tryAcquire(maxWait, TimeUnit.MILLISECONDS) : permits.tryAcquire();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			registry.increment(REJECTED, "client", clientName);
+			throw new CallNotPermittedException("Too many concurrent calls to " + clientName);
+		}
+	}
+
+	public void release() {
+		permits.release();
+	}
+
+	/**
+	 * Number of calls that can start without waiting.
+	 */
+	public int getAvailablePermits() {
+		return permits.availablePermits();
+	}
+}
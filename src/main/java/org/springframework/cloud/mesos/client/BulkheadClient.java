@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.mesos.client;
+
+import java.io.IOException;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * Feign {@link Client} decorator taking a {@link Bulkhead} permit for each HTTP call, and rejecting it with a
+ * {@link CallNotPermittedException} if none is available in time.
+ * <p>
+ * The permit is held only while the request is sent and its response headers are awaited. Placed below a
+ * {@link RateLimitingClient} and {@link RetryingClient}, calls waiting for a rate limit or backing off before
+ * a retry don't hold one, so the limit applies to the calls actually in progress.
+ */
+public class BulkheadClient implements Client {
+
+	private final Client delegate;
+
+	private final Bulkhead bulkhead;
+
+	/**
+	 * @param delegate the client sending the requests
+	 * @param bulkhead the limit of concurrent calls
+	 */
+	public BulkheadClient(Client delegate, Bulkhead bulkhead) {
+		this.delegate = delegate;
+		this.bulkhead = bulkhead;
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException {
+		bulkhead.acquire();
+		try {
+			return delegate.execute(request, options);
+		}
+		finally {
+			bulkhead.release();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.mesos.client;
+
+/**
+ * Configuration of a {@link Bulkhead}.
+ */
+public class BulkheadProperties {
+
+	/**
+	 * Whether to limit the number of concurrent calls to the service.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Maximum number of calls to the service in progress at a time.
+	 */
+	private int maxConcurrentCalls = 20;
+
+	/**
+	 * Time in milliseconds a call waits for one in progress to complete when the maximum is reached, before
+	 * being rejected.
+	 */
+	private long maxWait = 500L;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxConcurrentCalls() {
+		return maxConcurrentCalls;
+	}
+
+	public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+		this.maxConcurrentCalls = maxConcurrentCalls;
+	}
+
+	public long getMaxWait() {
+		return maxWait;
+	}
+
+	public void setMaxWait(long maxWait) {
+		this.maxWait = maxWait;
+	}
+}
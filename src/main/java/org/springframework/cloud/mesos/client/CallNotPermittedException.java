@@ -0,0 +1,27 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.mesos.client;
+
+/**
+ * Thrown instead of calling a remote service whose {@link CircuitBreaker} is open, whose {@link Bulkhead}
+ * has no room for another concurrent call, or whose {@link RateLimitingClient rate limit} is exceeded.
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+	public CallNotPermittedException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.mesos.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.mesos.metrics.MetricsRegistry;
+
+/**
+ * Count-based circuit breaker for the calls to a remote service. While {@link State#CLOSED closed}, the
+ * outcomes of the most recent calls are kept in a sliding window, and the circuit opens once the share of
+ * failures in it reaches the threshold. While {@link State#OPEN open}, calls are rejected without reaching
+ * the service until the open duration is over. The circuit is then {@link State#HALF_OPEN half open} and
+ * lets a few trial calls through: it closes if they all succeed, and opens again as soon as one fails.
+ * <p>
+ * Each state transition is counted in {@value #TRANSITIONS}, tagged with the {@code client} name and the
+ * {@code from} and {@code to} states, and each rejected call in {@value #REJECTED}.
+ */
+public class CircuitBreaker {
+
+	public static final String TRANSITIONS = "mesos.client.circuit-breaker.transitions";
+
+	public static final String REJECTED = "mesos.client.circuit-breaker.rejected";
+
+	private static final Log logger = LogFactory.getLog(CircuitBreaker.class);
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final CircuitBreakerProperties properties;
+
+	private final MetricsRegistry registry;
+
+	private final String clientName;
+
+	private final boolean[] outcomes;
+
+	private int calls;
+
+	private int failures;
+
+	private int next;
+
+	private State state = State.CLOSED;
+
+	private long openedAt;
+
+	private int halfOpenPermits;
+
+	private int halfOpenSuccesses;
+
+	/**
+	 * @param properties the thresholds and durations of the breaker
+	 * @param registry the registry to count the transitions and rejected calls in
+	 * @param clientName the value of the {@code client} tag, for example {@code marathon}
+	 */
+	public CircuitBreaker(CircuitBreakerProperties properties, MetricsRegistry registry, String clientName) {
+		this.properties = properties;
+		this.registry = registry;
+		this.clientName = clientName;
+		this.outcomes = new boolean[Math.max(1, properties.getSlidingWindowSize())];
+	}
+
+	/**
+	 * Ask for a call to be let through, to be followed by {@link #onSuccess()} or {@link #onFailure()}
+	 * once it completed.
+	 *
+	 * @throws CallNotPermittedException if the circuit is open, or half open with all its trial calls in
+	 * progress
+	 */
+	public void acquirePermission() {
+		synchronized (this) {
+			if (state == State.OPEN
+					&& System.nanoTime() - openedAt >= TimeUnit.MILLISECONDS.toNanos(properties.getOpenDuration())) {
+				transitionTo(State.HALF_OPEN);
+			}
+			if (state == State.CLOSED) {
+				return;
+			}
+			if (state == State.HALF_OPEN && halfOpenPermits < Math.max(1, properties.getHalfOpenCalls())) {
+				halfOpenPermits++;
+				return;
+			}
+		}
+		registry.increment(REJECTED, "client", clientName);
+		throw new CallNotPermittedException("Circuit breaker of " + clientName + " is open");
+	}
+
+	/**
+	 * Give back the permission of a call that didn't reach the service, without recording an outcome.
+	 */
+	public synchronized void releasePermission() {
+		if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+			halfOpenPermits--;
+		}
+	}
+
+	/**
+	 * Record a call that completed normally, including with an error caused by the request itself.
+	 */
+	public synchronized void onSuccess() {
+		if (state == State.CLOSED) {
+			record(false);
+		}
+		else if (state == State.HALF_OPEN && ++halfOpenSuccesses >= Math.max(1, properties.getHalfOpenCalls())) {
+			transitionTo(State.CLOSED);
+		}
+	}
+
+	/**
+	 * Record a call that failed because of the service, such as a server error or a timeout.
+	 */
+	public synchronized void onFailure() {
+		if (state == State.CLOSED) {
+			record(true);
+			if (calls >= properties.getMinimumCalls()
+					&& failures * 100 >= properties.getFailureRateThreshold() * calls) {
+				transitionTo(State.OPEN);
+			}
+		}
+		else if (state == State.HALF_OPEN) {
+			transitionTo(State.OPEN);
+		}
+	}
+
+	public synchronized State getState() {
+		return state;
+	}
+
+	private void record(boolean failure) {
+		if (calls == outcomes.length) {
+			if (outcomes[next]) {
+				failures--;
+			}
+		}
+		else {
+			calls++;
+		}
+		outcomes[next] = failure;
+		if (failure) {
+			failures++;
+		}
+		next = (next + 1) % outcomes.length;
+	}
+
+	private void transitionTo(State to) {
+		State from = state;
+		state = to;
+		if (to == State.OPEN) {
+			openedAt = System.nanoTime();
+		}
+		else if (to == State.HALF_OPEN) {
+			halfOpenPermits = 0;
+			halfOpenSuccesses = 0;
+		}
+		else {
+			calls = 0;
+			failures = 0;
+			next = 0;
+		}
+		registry.increment(TRANSITIONS, "client", clientName, "from", from.name(), "to", to.name());
+		logger.info(String.format("Circuit breaker of %s changed from %s to %s", clientName, from, to));
+	}
+}
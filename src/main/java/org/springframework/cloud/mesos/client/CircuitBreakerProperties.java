@@ -0,0 +1,101 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.mesos.client;
+
+/**
+ * Configuration of a {@link CircuitBreaker}.
+ */
+public class CircuitBreakerProperties {
+
+	/**
+	 * Whether to stop calling the service while most recent calls failed.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Number of most recent calls whose outcomes decide whether the circuit opens.
+	 */
+	private int slidingWindowSize = 20;
+
+	/**
+	 * Minimum number of calls in the sliding window before the circuit can open.
+	 */
+	private int minimumCalls = 10;
+
+	/**
+	 * Percentage of failed calls in the sliding window at or above which the circuit opens.
+	 */
+	private int failureRateThreshold = 50;
+
+	/**
+	 * Time in milliseconds the circuit stays open before letting trial calls through.
+	 */
+	private long openDuration = 30000L;
+
+	/**
+	 * Number of trial calls let through once the open duration is over. The circuit closes if they all
+	 * succeed, and opens again as soon as one fails.
+	 */
+	private int halfOpenCalls = 3;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getSlidingWindowSize() {
+		return slidingWindowSize;
+	}
+
+	public void setSlidingWindowSize(int slidingWindowSize) {
+		this.slidingWindowSize = slidingWindowSize;
+	}
+
+	public int getMinimumCalls() {
+		return minimumCalls;
+	}
+
+	public void setMinimumCalls(int minimumCalls) {
+		this.minimumCalls = minimumCalls;
+	}
+
+	public int getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	public void setFailureRateThreshold(int failureRateThreshold) {
+		this.failureRateThreshold = failureRateThreshold;
+	}
+
+	public long getOpenDuration() {
+		return openDuration;
+	}
+
+	public void setOpenDuration(long openDuration) {
+		this.openDuration = openDuration;
+	}
+
+	public int getHalfOpenCalls() {
+		return halfOpenCalls;
+	}
+
+	public void setHalfOpenCalls(int halfOpenCalls) {
+		this.halfOpenCalls = halfOpenCalls;
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+/**
+ * Feign {@link Client} decorator that asks for gzip or deflate encoded responses, and decodes them while
+ * they are read, so that decoders only ever see the plain body.
+ */
+public class DecompressingClient implements Client {
+
+	static final String ACCEPT_ENCODING = "Accept-Encoding";
+
+	static final String CONTENT_ENCODING = "Content-Encoding";
+
+	private static final String CONTENT_LENGTH = "Content-Length";
+
+	private final Client delegate;
+
+	public DecompressingClient(Client delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException {
+		Request encodedRequest = request;
+		if (!containsHeader(request.headers(), ACCEPT_ENCODING)) {
+			Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+			headers.put(ACCEPT_ENCODING, Collections.singletonList("gzip, deflate"));
+			encodedRequest = Request.create(request.method(), request.url(), headers, request.body(), request.charset());
+		}
+		return decode(delegate.execute(encodedRequest, options));
+	}
+
+	private static Response decode(Response response) throws IOException {
+		if (response.body() == null) {
+			return response;
+		}
+		String encoding = null;
+		Map<String, Collection<String>> headers = new LinkedHashMap<>();
+		for (Map.Entry<String, Collection<String>> header : response.headers().entrySet()) {
+			if (CONTENT_ENCODING.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+				encoding = header.getValue().iterator().next().trim().toLowerCase();
+			}
+			else if (!CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+				headers.put(header.getKey(), header.getValue());
+			}
+		}
+		boolean gzip = "gzip".equals(encoding) || "x-gzip".equals(encoding);
+		if (!gzip && !"deflate".equals(encoding)) {
+			return response;
+		}
+		if (Integer.valueOf(0).equals(response.body().length())) {
+			// nothing to decode
+			return response;
+		}
+		InputStream body = new DecodingInputStream(response.body().asInputStream(), gzip);
+		return Response.create(response.status(), response.reason(), headers, body, null);
+	}
+
+	private static boolean containsHeader(Map<String, Collection<String>> headers, String name) {
+		for (String header : headers.keySet()) {
+			if (name.equalsIgnoreCase(header)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Decodes the body on first read, so that an empty body, as sent with a 204 or to a HEAD request
+	 * despite the encoding header, is read as empty rather than failing on the missing gzip header.
+	 */
+	private static class DecodingInputStream extends InputStream {
+
+		private final InputStream encoded;
+
+		private final boolean gzip;
+
+		private InputStream decoded;
+
+		DecodingInputStream(InputStream encoded, boolean gzip) {
+			this.encoded = encoded;
+			this.gzip = gzip;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return decoded().read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return decoded().read(b, off, len);
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			return decoded().skip(n);
+		}
+
+		@Override
+		public int available() throws IOException {
+			return decoded != null ? decoded.available() : 0;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (decoded != null) {
+				decoded.close();
+			}
+			else {
+				encoded.close();
+			}
+		}
+
+		private InputStream decoded() throws IOException {
+			if (decoded == null) {
+				PushbackInputStream in = new PushbackInputStream(encoded, 1);
+				int first = in.read();
+				if (first < 0) {
+					decoded = in;
+				}
+				else {
+					in.unread(first);
+					decoded = gzip ? new GZIPInputStream(in) : new InflaterInputStream(in);
+				}
+			}
+			return decoded;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.client;
+
+/**
+ * Configuration of the HTTP transport used by the Feign clients for Marathon and Chronos.
+ */
+public class HttpClientProperties {
+
+	/**
+	 * Whether to use a pooled Apache HttpClient that keeps connections alive between requests, rather than
+	 * the JDK HttpURLConnection.
+	 */
+	private boolean pooled = true;
+
+	/**
+	 * Maximum number of pooled connections per route.
+	 */
+	private int maxConnectionsPerRoute = 20;
+
+	/**
+	 * Maximum number of pooled connections in total.
+	 */
+	private int maxConnectionsTotal = 50;
+
+	/**
+	 * Connect timeout in milliseconds.
+	 */
+	private int connectTimeout = 10000;
+
+	/**
+	 * Read timeout in milliseconds.
+	 */
+	private int readTimeout = 60000;
+
+	/**
+	 * Time in milliseconds an idle pooled connection is kept alive, unless the server asks for less.
+	 */
+	private long keepAlive = 30000L;
+
+	/**
+	 * Whether to ask for gzip or deflate encoded responses, which are decoded while they are read.
+	 */
+	private boolean compression = true;
+
+	/**
+	 * Retries of the calls failing with a transient error.
+	 */
+	private RetryProperties retry = new RetryProperties();
+
+	/**
+	 * Client-side rate limits of the calls.
+	 */
+	private RateLimiterProperties rateLimiter = new RateLimiterProperties();
+
+	public boolean isPooled() {
+		return pooled;
+	}
+
+	public void setPooled(boolean pooled) {
+		this.pooled = pooled;
+	}
+
+	public int getMaxConnectionsPerRoute() {
+		return maxConnectionsPerRoute;
+	}
+
+	public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+	}
+
+	public int getMaxConnectionsTotal() {
+		return maxConnectionsTotal;
+	}
+
+	public void setMaxConnectionsTotal(int maxConnectionsTotal) {
+		this.maxConnectionsTotal = maxConnectionsTotal;
+	}
+
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(int connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	public int getReadTimeout() {
+		return readTimeout;
+	}
+
+	public void setReadTimeout(int readTimeout) {
+		this.readTimeout = readTimeout;
+	}
+
+	public long getKeepAlive() {
+		return keepAlive;
+	}
+
+	public void setKeepAlive(long keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+
+	public boolean isCompression() {
+		return compression;
+	}
+
+	public void setCompression(boolean compression) {
+		this.compression = compression;
+	}
+
+	public RetryProperties getRetry() {
+		return retry;
+	}
+
+	public void setRetry(RetryProperties retry) {
+		this.retry = retry;
+	}
+
+	public RateLimiterProperties getRateLimiter() {
+		return rateLimiter;
+	}
+
+	public void setRateLimiter(RateLimiterProperties rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+}
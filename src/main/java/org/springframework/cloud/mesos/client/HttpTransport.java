@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.Request;
+import feign.httpclient.ApacheHttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+/**
+ * The Feign {@link Client} and {@link Request.Options} for a Marathon or Chronos endpoint, as configured by
+ * {@link HttpClientProperties}. A pooled transport holds its connections until it is closed.
+ */
+public class HttpTransport implements Closeable {
+
+	private final Client client;
+
+	private final Request.Options options;
+
+	private final CloseableHttpClient httpClient;
+
+	public HttpTransport(HttpClientProperties properties) {
+		this.options = new Request.Options(properties.getConnectTimeout(), properties.getReadTimeout());
+		Client transport;
+		if (properties.isPooled()) {
+			this.httpClient = createPooledHttpClient(properties);
+			transport = new ApacheHttpClient(httpClient);
+		}
+		else {
+			this.httpClient = null;
+			transport = new Client.Default(null, null);
+		}
+		this.client = properties.isCompression() ? new DecompressingClient(transport) : transport;
+	}
+
+	public Client getClient() {
+		return client;
+	}
+
+	public Request.Options getOptions() {
+		return options;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (httpClient != null) {
+			httpClient.close();
+		}
+	}
+
+	private static CloseableHttpClient createPooledHttpClient(HttpClientProperties properties) {
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(properties.getMaxConnectionsTotal());
+		connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+		long keepAlive = properties.getKeepAlive();
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout(properties.getConnectTimeout())
+				.setSocketTimeout(properties.getReadTimeout())
+				.setConnectionRequestTimeout(properties.getConnectTimeout())
+				.build();
+		return HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig)
+				.setKeepAliveStrategy((response, context) -> {
+					long requested = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+					return requested > 0 ? Math.min(requested, keepAlive) : keepAlive;
+				})
+				.evictExpiredConnections()
+				.evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+				// content encoding is negotiated by DecompressingClient, for either transport
+				.disableContentCompression()
+				.disableAutomaticRetries()
+				.build();
+	}
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import org.springframework.cloud.mesos.metrics.MetricsRegistry;
+
+/**
+ * Feign {@link Client} decorator that records metrics for each HTTP call:
+ * <ul>
+ * <li>{@value #REQUESTS}: histogram of the time in milliseconds until the response headers are received,
+ * tagged with the client, the HTTP method, the endpoint and the response status, or {@code IO_ERROR}
+ * if no response was received</li>
+ * <li>{@value #ERRORS}: counter of the calls that failed with a status of 400 or more or without a
+ * response, with the same tags</li>
+ * <li>{@value #REQUEST_SIZE} and {@value #RESPONSE_SIZE}: histograms of the sizes of the bodies in bytes,
+ * tagged with the client, method and endpoint. The response body is measured as the decoder reads it.</li>
+ * </ul>
+ * The endpoint is the request path with the ids of apps, groups and jobs replaced by {@code {id}}: a path
+ * segment is kept as is only if it is one of the segments of the API, for example {@code apps} or
+ * {@code v2}, so {@code /v2/apps/my/app/tasks} is recorded as {@code /v2/apps/{id}/tasks}.
+ */
+public class InstrumentedClient implements Client {
+
+	public static final String REQUESTS = "mesos.client.requests";
+
+	public static final String ERRORS = "mesos.client.errors";
+
+	public static final String REQUEST_SIZE = "mesos.client.request.size";
+
+	public static final String RESPONSE_SIZE = "mesos.client.response.size";
+
+	private final Client delegate;
+
+	private final MetricsRegistry registry;
+
+	private final String clientName;
+
+	private final Set<String> apiPathSegments;
+
+	/**
+	 * @param delegate the client sending the requests
+	 * @param registry the registry to record the metrics in
+	 * @param clientName the value of the {@code client} tag, for example {@code marathon}
+	 * @param apiPathSegments the path segments of the API that are not ids
+	 */
+	public InstrumentedClient(Client delegate, MetricsRegistry registry, String clientName,
+			Set<String> apiPathSegments) {
+		this.delegate = delegate;
+		this.registry = registry;
+		this.clientName = clientName;
+		this.apiPathSegments = apiPathSegments;
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException {
+		String method = request.method();
+		String endpoint = endpoint(request.url(), apiPathSegments);
+		if (request.body() != null) {
+			registry.record(REQUEST_SIZE, request.body().length, "client", clientName, "method", method,
+					"endpoint", endpoint);
+		}
+		long start = System.nanoTime();
+		Response response;
+		try {
+			response = delegate.execute(request, options);
+		}
+		catch (IOException | RuntimeException e) {
+			record(method, endpoint, "IO_ERROR", start, true);
+			throw e;
+		}
+		record(method, endpoint, String.valueOf(response.status()), start, response.status() >= 400);
+		if (response.body() == null) {
+			return response;
+		}
+		InputStream body = new CountingInputStream(response.body().asInputStream(), method, endpoint);
+		return Response.create(response.status(), response.reason(), response.headers(), body,
+				response.body().length());
+	}
+
+	private void record(String method, String endpoint, String status, long start, boolean error) {
+		long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		registry.record(REQUESTS, millis, "client", clientName, "method", method, "endpoint", endpoint,
+				"status", status);
+		if (error) {
+			registry.increment(ERRORS, "client", clientName, "method", method, "endpoint", endpoint,
+					"status", status);
+		}
+	}
+
+	/**
+	 * The endpoint of the given URL, with the path segments that are not in {@code apiPathSegments} replaced by
+	 * {@code {id}}.
+	 */
+	static String endpoint(String url, Set<String> apiPathSegments) {
+		String path = url;
+		int authority = path.indexOf("://");
+		if (authority >= 0) {
+			int pathStart = path.indexOf('/', authority + 3);
+			path = pathStart >= 0 ? path.substring(pathStart) : "";
+		}
+		int query = path.indexOf('?');
+		if (query >= 0) {
+			path = path.substring(0, query);
+		}
+		StringBuilder endpoint = new StringBuilder();
+		boolean inId = false;
+		for (String segment : path.split("/")) {
+			if (segment.isEmpty()) {
+				continue;
+			}
+			if (apiPathSegments.contains(segment)) {
+				endpoint.append('/').append(segment);
+				inId = false;
+			}
+			else if (!inId) {
+				endpoint.append("/{id}");
+				inId = true;
+			}
+		}
+		return endpoint.length() > 0 ? endpoint.toString() : "/";
+	}
+
+	/**
+	 * Response body that records the number of bytes read from it once it is closed.
+	 */
+	private class CountingInputStream extends FilterInputStream {
+
+		private final String method;
+
+		private final String endpoint;
+
+		private long count;
+
+		private boolean closed;
+
+		CountingInputStream(InputStream in, String method, String endpoint) {
+			super(in);
+			this.method = method;
+			this.endpoint = endpoint;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b >= 0) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int n = super.read(b, off, len);
+			if (n > 0) {
+				count += n;
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				registry.record(RESPONSE_SIZE, count, "client", clientName, "method", method, "endpoint", endpoint);
+			}
+			super.close();
+		}
+	}
+}
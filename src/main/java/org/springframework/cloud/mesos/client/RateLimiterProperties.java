@@ -0,0 +1,145 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.mesos.client;
+
+/**
+ * Configuration of the client-side rate limits of the calls to Marathon or Chronos, see
+ * {@link RateLimitingClient}. Reads ({@code GET} and {@code HEAD} requests) and writes (all other requests)
+ * are limited separately.
+ */
+public class RateLimiterProperties {
+
+	/**
+	 * What to do with a call that exceeds the rate limit.
+	 */
+	public enum Mode {
+
+		/**
+		 * Wait for the call's turn, up to the maximum wait.
+		 */
+		QUEUE,
+
+		/**
+		 * Reject the call right away.
+		 */
+		FAIL_FAST
+	}
+
+	/**
+	 * Whether to limit the rate of the calls.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * What to do with a call that exceeds the rate limit.
+	 */
+	private Mode mode = Mode.QUEUE;
+
+	/**
+	 * Maximum time in milliseconds a call waits for its turn in {@link Mode#QUEUE} mode before being rejected.
+	 */
+	private long maxWait = 5000L;
+
+	/**
+	 * Rate limit of the reads.
+	 */
+	private Limit reads = new Limit(100, 200);
+
+	/**
+	 * Rate limit of the writes.
+	 */
+	private Limit writes = new Limit(20, 40);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Mode getMode() {
+		return mode;
+	}
+
+	public void setMode(Mode mode) {
+		this.mode = mode;
+	}
+
+	public long getMaxWait() {
+		return maxWait;
+	}
+
+	public void setMaxWait(long maxWait) {
+		this.maxWait = maxWait;
+	}
+
+	public Limit getReads() {
+		return reads;
+	}
+
+	public void setReads(Limit reads) {
+		this.reads = reads;
+	}
+
+	public Limit getWrites() {
+		return writes;
+	}
+
+	public void setWrites(Limit writes) {
+		this.writes = writes;
+	}
+
+	/**
+	 * Token bucket rate limit of a class of calls.
+	 */
+	public static class Limit {
+
+		/**
+		 * Sustained number of calls per second.
+		 */
+		private double permitsPerSecond;
+
+		/**
+		 * Number of calls that can be made at once after a quiet period.
+		 */
+		private int burst;
+
+		public Limit() {
+		}
+
+		public Limit(double permitsPerSecond, int burst) {
+			this.permitsPerSecond = permitsPerSecond;
+			this.burst = burst;
+		}
+
+		public double getPermitsPerSecond() {
+			return permitsPerSecond;
+		}
+
+		public void setPermitsPerSecond(double permitsPerSecond) {
+			this.permitsPerSecond = permitsPerSecond;
+		}
+
+		public int getBurst() {
+			return burst;
+		}
+
+		public void setBurst(int burst) {
+			this.burst = burst;
+		}
+	}
+}
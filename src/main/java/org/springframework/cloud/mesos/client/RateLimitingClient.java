@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.mesos.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import org.springframework.cloud.mesos.client.RateLimiterProperties.Mode;
+import org.springframework.cloud.mesos.metrics.MetricsRegistry;
+
+/**
+ * Feign {@link Client} decorator limiting the rate of the requests sent to Marathon or Chronos, so that bulk
+ * operations of the deployer don't overload the control plane they share with other frameworks. Reads
+ * ({@code GET} and {@code HEAD} requests) and writes are limited by separate token buckets. A request beyond
+ * the limit waits for its turn, or is rejected with a {@link CallNotPermittedException} if it would wait
+ * longer than the maximum or the limiter fails fast.
+ * <p>
+ * The time each request waited is recorded in milliseconds in {@value #WAIT}, and each rejected request
+ * counted in {@value #REJECTED}, both tagged with the {@code client} name and the {@code class} of the
+ * request, {@code read} or {@code write}.
+ */
+public class RateLimitingClient implements Client {
+
+	public static final String WAIT = "mesos.client.rate-limiter.wait";
+
+	public static final String REJECTED = "mesos.client.rate-limiter.rejected";
+
+	private final Client delegate;
+
+	private final TokenBucket reads;
+
+	private final TokenBucket writes;
+
+	private final long maxWaitNanos;
+
+	private final MetricsRegistry registry;
+
+	private final String clientName;
+
+	/**
+	 * @param delegate the client sending the requests
+	 * @param properties the rate limits
+	 * @param registry the registry to record the waits and rejections in
+	 * @param clientName the value of the {@code client} tag, for example {@code marathon}
+	 */
+	public RateLimitingClient(Client delegate, RateLimiterProperties properties, MetricsRegistry registry,
+			String clientName) {
+		this.delegate = delegate;
+		this.reads = new TokenBucket(properties.getReads().getPermitsPerSecond(), properties.getReads().getBurst());
+		this.writes = new TokenBucket(properties.getWrites().getPermitsPerSecond(), properties.getWrites().getBurst());
+		this.maxWaitNanos = properties.getMode() == Mode.FAIL_FAST ? 0
+				: TimeUnit.MILLISECONDS.toNanos(properties.getMaxWait());
+		this.registry = registry;
+		this.clientName = clientName;
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException {
+		boolean read = "GET".equals(request.method()) || "HEAD".equals(request.method());
+		String requestClass = read ? "read" : "write";
+		long wait = (read ? reads : writes).reserve(maxWaitNanos);
+		if (wait < 0) {
+			registry.increment(REJECTED, "client", clientName, "class", requestClass);
+			throw new CallNotPermittedException(String.format("Rate limit of %s %ss exceeded", clientName,
+					requestClass));
+		}
+		registry.record(WAIT, TimeUnit.NANOSECONDS.toMillis(wait), "client", clientName, "class", requestClass);
+		if (wait > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(wait);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				InterruptedIOException exception = new InterruptedIOException("Interrupted while rate limited");
+				exception.initCause(e);
+				throw exception;
+			}
+		}
+		return delegate.execute(request, options);
+	}
+}
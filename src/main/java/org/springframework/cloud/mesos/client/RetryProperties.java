@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.client;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Configuration of the retries of failed calls to Marathon or Chronos, see {@link RetryingClient}.
+ */
+public class RetryProperties {
+
+	/**
+	 * Maximum number of attempts of a call, including the first one. 1 disables retries.
+	 */
+	private int maxAttempts = 3;
+
+	/**
+	 * Delay in milliseconds before the first retry.
+	 */
+	private long initialBackoff = 200L;
+
+	/**
+	 * Factor applied to the delay after each retry.
+	 */
+	private double multiplier = 2.0;
+
+	/**
+	 * Maximum delay in milliseconds between two attempts.
+	 */
+	private long maxBackoff = 5000L;
+
+	/**
+	 * Share of the delay, between 0 and 1, that is randomly taken off each delay, so that clients that
+	 * failed together don't retry together.
+	 */
+	private double jitter = 0.5;
+
+	/**
+	 * Response statuses to retry, such as 409 when Marathon is busy with a deployment of the app, or 503 when the
+	 * admin router has no leader to forward to. A 409 is never retried for a {@code POST}.
+	 */
+	private Set<Integer> retryableStatuses = new LinkedHashSet<>(Arrays.asList(409, 502, 503, 504));
+
+	/**
+	 * Whether to retry calls with idempotent methods that failed without a response, such as on a connect or
+	 * read timeout. {@code POST} requests are never retried in that case, since they may have been applied.
+	 */
+	private boolean retryOnIoError = true;
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+	public long getInitialBackoff() {
+		return initialBackoff;
+	}
+
+	public void setInitialBackoff(long initialBackoff) {
+		this.initialBackoff = initialBackoff;
+	}
+
+	public double getMultiplier() {
+		return multiplier;
+	}
+
+	public void setMultiplier(double multiplier) {
+		this.multiplier = multiplier;
+	}
+
+	public long getMaxBackoff() {
+		return maxBackoff;
+	}
+
+	public void setMaxBackoff(long maxBackoff) {
+		this.maxBackoff = maxBackoff;
+	}
+
+	public double getJitter() {
+		return jitter;
+	}
+
+	public void setJitter(double jitter) {
+		this.jitter = jitter;
+	}
+
+	public Set<Integer> getRetryableStatuses() {
+		return retryableStatuses;
+	}
+
+	public void setRetryableStatuses(Set<Integer> retryableStatuses) {
+		this.retryableStatuses = retryableStatuses;
+	}
+
+	public boolean isRetryOnIoError() {
+		return retryOnIoError;
+	}
+
+	public void setRetryOnIoError(boolean retryOnIoError) {
+		this.retryOnIoError = retryOnIoError;
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.mesos.metrics.MetricsRegistry;
+
+/**
+ * Feign {@link Client} decorator that retries calls failing with one of the
+ * {@link RetryProperties#getRetryableStatuses() retryable statuses} or without a response, waiting an
+ * exponentially growing delay with jitter between attempts. A {@code Retry-After} header of the response
+ * extends the delay, up to the maximum. Once the attempts are exhausted, the last response or error is passed
+ * on as is.
+ * <p>
+ * Calls that failed without a response are only retried for idempotent methods, since a {@code POST} that
+ * timed out may have been applied. For the same reason, a {@code 409 Conflict} is not retried for a
+ * {@code POST}: it is the answer to creating an app or group that already exists.
+ * <p>
+ * Each retry increments the {@value #RETRIES} counter, and each call that failed after all its attempts the
+ * {@value #EXHAUSTED} counter, both tagged with the client, the HTTP method, the endpoint and the status of the
+ * failed attempt, or {@code IO_ERROR}.
+ * <p>
+ * Feign's own retries should be turned off with {@link #NEVER_RETRY}, or the attempts are multiplied.
+ */
+public class RetryingClient implements Client {
+
+	public static final String RETRIES = "mesos.client.retries";
+
+	public static final String EXHAUSTED = "mesos.client.retries.exhausted";
+
+	/**
+	 * Feign {@link Retryer} that never retries, to use with this client.
+	 */
+	public static final Retryer NEVER_RETRY = new Retryer() {
+
+		@Override
+		public void continueOrPropagate(RetryableException e) {
+			throw e;
+		}
+
+		@Override
+		public Retryer clone() {
+			return this;
+		}
+	};
+
+	private static final Log logger = LogFactory.getLog(RetryingClient.class);
+
+	private static final Set<String> IDEMPOTENT_METHODS = new HashSet<>(
+			Arrays.asList("GET", "HEAD", "OPTIONS", "PUT", "DELETE"));
+
+	private final Client delegate;
+
+	private final RetryProperties properties;
+
+	private final MetricsRegistry registry;
+
+	private final String clientName;
+
+	private final Set<String> apiPathSegments;
+
+	/**
+	 * @param delegate the client sending the requests
+	 * @param properties the retry policy
+	 * @param registry the registry to record the retries in
+	 * @param clientName the value of the {@code client} tag, for example {@code marathon}
+	 * @param apiPathSegments the path segments of the API that are not ids, to name the endpoints
+	 */
+	public RetryingClient(Client delegate, RetryProperties properties, MetricsRegistry registry, String clientName,
+			Set<String> apiPathSegments) {
+		this.delegate = delegate;
+		this.properties = properties;
+		this.registry = registry;
+		this.clientName = clientName;
+		this.apiPathSegments = apiPathSegments;
+	}
+
+	@Override
+	public Response execute(Request request, Request.Options options) throws IOException {
+		int maxAttempts = Math.max(1, properties.getMaxAttempts());
+		boolean idempotent = IDEMPOTENT_METHODS.contains(request.method());
+		for (int attempt = 1; ; attempt++) {
+			String failure;
+			long retryAfter = 0;
+			try {
+				Response response = delegate.execute(request, options);
+				if (!properties.getRetryableStatuses().contains(response.status())
+						|| response.status() == 409 && !idempotent) {
+					return response;
+				}
+				failure = String.valueOf(response.status());
+				if (attempt >= maxAttempts) {
+					exhausted(request, failure);
+					return response;
+				}
+				retryAfter = retryAfter(response.headers());
+				if (response.body() != null) {
+					response.body().close();
+				}
+			}
+			catch (IOException e) {
+				if (!properties.isRetryOnIoError() || !idempotent) {
+					throw e;
+				}
+				failure = "IO_ERROR";
+				if (attempt >= maxAttempts) {
+					exhausted(request, failure);
+					throw e;
+				}
+			}
+			long delay = Math.max(backoff(attempt), Math.min(retryAfter, properties.getMaxBackoff()));
+			registry.increment(RETRIES, "client", clientName, "method", request.method(),
+					"endpoint", InstrumentedClient.endpoint(request.url(), apiPathSegments), "status", failure);
+			if (logger.isDebugEnabled()) {
+				logger.debug(String.format("Retrying %s %s in %d ms after attempt %d failed with %s", request.method(),
+						request.url(), delay, attempt, failure));
+			}
+			sleep(delay);
+		}
+	}
+
+	/**
+	 * The delay before the retry following the given attempt.
+	 */
+	long backoff(int attempt) {
+		double delay = properties.getInitialBackoff() * Math.pow(properties.getMultiplier(), attempt - 1);
+		delay = Math.min(delay, properties.getMaxBackoff());
+		double jitter = Math.min(1, Math.max(0, properties.getJitter()));
+		return (long) (delay * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+	}
+
+	private void exhausted(Request request, String failure) {
+		registry.increment(EXHAUSTED, "client", clientName, "method", request.method(),
+				"endpoint", InstrumentedClient.endpoint(request.url(), apiPathSegments), "status", failure);
+	}
+
+	/**
+	 * The delay in milliseconds asked for by a {@code Retry-After} header in seconds, or 0.
+	 */
+	private static long retryAfter(Map<String, Collection<String>> headers) {
+		for (Map.Entry<String, Collection<String>> header : headers.entrySet()) {
+			if ("Retry-After".equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+				try {
+					return Long.parseLong(header.getValue().iterator().next().trim()) * 1000;
+				}
+				catch (NumberFormatException e) {
+					// an HTTP date, which Marathon and Chronos don't send
+					return 0;
+				}
+			}
+		}
+		return 0;
+	}
+
+	private static void sleep(long delay) throws InterruptedIOException {
+		try {
+			Thread.sleep(delay);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting to retry");
+			exception.initCause(e);
+			throw exception;
+		}
+	}
+}
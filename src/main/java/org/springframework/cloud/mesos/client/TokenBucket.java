@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.mesos.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket refilled at a constant rate up to its burst size. A call takes a token if there is one, and
+ * otherwise reserves the next token to come, which queues the callers in the order of their reservations
+ * without holding a lock while they wait.
+ */
+class TokenBucket {
+
+	private final double tokensPerNano;
+
+	private final double burst;
+
+	private double tokens;
+
+	private long refilledAt;
+
+	/**
+	 * @param permitsPerSecond the sustained rate of the calls
+	 * @param burst the maximum number of tokens, which the bucket starts with
+	 */
+	TokenBucket(double permitsPerSecond, int burst) {
+		this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+		this.burst = Math.max(1, burst);
+		this.tokens = this.burst;
+		this.refilledAt = System.nanoTime();
+	}
+
+	/**
+	 * Take a token, or reserve one if the caller can wait for it.
+	 *
+	 * @param maxWaitNanos the longest the caller is willing to wait
+	 * @return the time in nanoseconds the caller must wait before making its call, or -1 if that would be
+	 * longer than {@code maxWaitNanos}, in which case no token was taken
+	 */
+	synchronized long reserve(long maxWaitNanos) {
+		long now = System.nanoTime();
+		tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+		refilledAt = now;
+		if (tokens >= 1) {
+			tokens--;
+			return 0;
+		}
+		long wait = (long) Math.ceil((1 - tokens) / tokensPerNano);
+		if (wait > maxWaitNanos) {
+			return -1;
+		}
+		tokens--;
+		return wait;
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.marathon.client;
+
+import feign.Param;
+import feign.RequestLine;
+import mesosphere.marathon.client.Marathon;
+import mesosphere.marathon.client.model.v2.Group;
+import mesosphere.marathon.client.utils.MarathonException;
+
+/**
+ * Interface adding REST end-points to {@link Marathon} that are not exposed by the Marathon client
+ * library.
+ */
+public interface ExtendedMarathon extends Marathon {
+
+	/**
+	 * Get a group with its apps, and embed the tasks, task counts and last task failure of each app,
+	 * so that the status of all apps can be built from a single request.
+	 */
+	@RequestLine("GET /v2/groups/{id}?embed=group.apps&embed=group.apps.tasks&embed=group.apps.counts&embed=group.apps.lastTaskFailure")
+	Group getGroupWithTasks(@Param("id") String id) throws MarathonException;
+
+	/**
+	 * Create a group together with all of its apps. Marathon turns this into a single deployment plan.
+	 */
+	@RequestLine("POST /v2/groups")
+	void createGroupDeployment(Group group) throws MarathonException;
+
+	/**
+	 * Delete a group together with all of its apps and sub-groups, optionally overriding any deployment
+	 * in progress.
+	 */
+	@RequestLine("DELETE /v2/groups/{id}?force={force}")
+	void deleteGroupAndApps(@Param("id") String id, @Param("force") boolean force) throws MarathonException;
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.marathon.client;
+
+import static java.util.Arrays.asList;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import feign.Client;
+import feign.Feign;
+import feign.Feign.Builder;
+import feign.Request;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Retryer;
+import feign.codec.ErrorDecoder;
+import feign.gson.GsonDecoder;
+import feign.gson.GsonEncoder;
+import mesosphere.marathon.client.utils.MarathonException;
+import mesosphere.marathon.client.utils.ModelUtils;
+
+/**
+ * Class for creating a Feign client for {@link ExtendedMarathon}, configured the same way as the
+ * one created by {@link mesosphere.marathon.client.MarathonClient}.
+ */
+public class ExtendedMarathonClient {
+
+	/**
+	 * The path segments of the Marathon API used here that are not app, group, task or deployment ids.
+	 */
+	public static final Set<String> API_PATH_SEGMENTS = Collections.unmodifiableSet(new HashSet<>(asList(
+			"v2", "apps", "groups", "tasks", "deployments", "versions", "restart", "info", "leader", "queue",
+			"events", "ping")));
+
+	static class MarathonHeadersInterceptor implements RequestInterceptor {
+		@Override
+		public void apply(RequestTemplate template) {
+			template.header("Accept", "application/json");
+			template.header("Content-Type", "application/json");
+		}
+	}
+
+	static class MarathonErrorDecoder implements ErrorDecoder {
+		@Override
+		public Exception decode(String methodKey, Response response) {
+			return new MarathonException(response.status(), response.reason());
+		}
+	}
+
+	public static ExtendedMarathon getInstance(String endpoint) {
+		return getInstance(endpoint, null);
+	}
+
+	/**
+	 * The generalized version of the method that allows more in-depth customizations via
+	 * {@link RequestInterceptor}s.
+	 *
+	 * @param endpoint URL for Marathon API
+	 */
+	public static ExtendedMarathon getInstance(String endpoint, RequestInterceptor... interceptors) {
+		return getInstance(endpoint, new Client.Default(null, null), new Request.Options(), interceptors);
+	}
+
+	/**
+	 * Creates a Marathon client proxy that sends its requests with the given Feign {@link Client}, for example
+	 * a pooled one created by {@link org.springframework.cloud.mesos.client.HttpTransport}.
+	 *
+	 * @param endpoint URL for Marathon API
+	 */
+	public static ExtendedMarathon getInstance(String endpoint, Client client, Request.Options options,
+			RequestInterceptor... interceptors) {
+		return getInstance(endpoint, client, options, new Retryer.Default(), interceptors);
+	}
+
+	/**
+	 * Creates a Marathon client proxy that sends its requests with the given Feign {@link Client} and retries
+	 * them as decided by the given {@link Retryer}, for example never when the client retries by itself.
+	 *
+	 * @param endpoint URL for Marathon API
+	 */
+	public static ExtendedMarathon getInstance(String endpoint, Client client, Request.Options options, Retryer retryer,
+			RequestInterceptor... interceptors) {
+		Builder b = Feign.builder()
+				.client(client)
+				.options(options)
+				.retryer(retryer)
+				.encoder(new GsonEncoder(ModelUtils.GSON))
+				.decoder(new GsonDecoder(ModelUtils.GSON))
+				.errorDecoder(new MarathonErrorDecoder());
+		if (interceptors != null) {
+			b.requestInterceptors(asList(interceptors));
+		}
+		b.requestInterceptor(new MarathonHeadersInterceptor());
+		return b.target(ExtendedMarathon.class, endpoint);
+	}
+}
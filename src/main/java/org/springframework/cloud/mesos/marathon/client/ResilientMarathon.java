@@ -0,0 +1,104 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.mesos.marathon.client;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import mesosphere.marathon.client.utils.MarathonException;
+
+import org.springframework.cloud.mesos.client.CallNotPermittedException;
+import org.springframework.cloud.mesos.client.CircuitBreaker;
+
+/**
+ * Guards the calls to an {@link ExtendedMarathon} client with a {@link CircuitBreaker}, rejecting calls while
+ * Marathon keeps failing, for example during a leader election. Rejected calls throw a
+ * {@link CallNotPermittedException} without reaching Marathon. The number of concurrent calls is limited
+ * further down, by a {@link org.springframework.cloud.mesos.client.BulkheadClient} around each HTTP call.
+ * <p>
+ * Server errors and calls failing without a response count as failures of the circuit breaker, while client
+ * errors such as {@code 404 Not Found} show Marathon is answering and count as successes. Calls rejected
+ * further down, for example by a rate limit or bulkhead, count as neither.
+ */
+public final class ResilientMarathon {
+
+	private ResilientMarathon() {
+	}
+
+	/**
+	 * Wrap the given client.
+	 *
+	 * @param delegate the client to guard
+	 * @param circuitBreaker the circuit breaker of the calls
+	 */
+	public static ExtendedMarathon wrap(ExtendedMarathon delegate, CircuitBreaker circuitBreaker) {
+		return (ExtendedMarathon) Proxy.newProxyInstance(ExtendedMarathon.class.getClassLoader(),
+				new Class<?>[] {ExtendedMarathon.class}, new Handler(delegate, circuitBreaker));
+	}
+
+	private static class Handler implements InvocationHandler {
+
+		private final ExtendedMarathon delegate;
+
+		private final CircuitBreaker circuitBreaker;
+
+		Handler(ExtendedMarathon delegate, CircuitBreaker circuitBreaker) {
+			this.delegate = delegate;
+			this.circuitBreaker = circuitBreaker;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class) {
+				if ("equals".equals(method.getName())) {
+					return proxy == args[0];
+				}
+				return method.invoke(delegate, args);
+			}
+			circuitBreaker.acquirePermission();
+			Throwable failure = null;
+			try {
+				return method.invoke(delegate, args);
+			}
+			catch (InvocationTargetException e) {
+				failure = e.getCause();
+				throw failure;
+			}
+			catch (Throwable e) {
+				failure = e;
+				throw e;
+			}
+			finally {
+				record(failure);
+			}
+		}
+
+		private void record(Throwable failure) {
+			if (failure instanceof CallNotPermittedException) {
+				circuitBreaker.releasePermission();
+			}
+			else if (failure == null
+					|| failure instanceof MarathonException && ((MarathonException) failure).getStatus() < 500) {
+				circuitBreaker.onSuccess();
+			}
+			else {
+				circuitBreaker.onFailure();
+			}
+		}
+	}
+}
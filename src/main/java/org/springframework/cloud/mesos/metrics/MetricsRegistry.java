@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.metrics;
+
+/**
+ * Sink for the metrics of the Marathon and Chronos clients and deployers. Metrics are identified by a name and
+ * tags, given as alternating keys and values. Implementations can bridge to any monitoring system; the
+ * default is the in-memory {@link SimpleMetricsRegistry}. Implementations must be thread-safe.
+ */
+public interface MetricsRegistry {
+
+	/**
+	 * Registry that discards all metrics.
+	 */
+	MetricsRegistry NOOP = new MetricsRegistry() {
+
+		@Override
+		public void increment(String name, String... tags) {
+		}
+
+		@Override
+		public void record(String name, long value, String... tags) {
+		}
+	};
+
+	/**
+	 * Increment a counter by one.
+	 *
+	 * @param name the name of the counter
+	 * @param tags alternating tag keys and values
+	 */
+	void increment(String name, String... tags);
+
+	/**
+	 * Record a value, such as a latency in milliseconds or a size in bytes, in a histogram.
+	 *
+	 * @param name the name of the histogram
+	 * @param value the value to record
+	 * @param tags alternating tag keys and values
+	 */
+	void record(String name, long value, String... tags);
+
+}
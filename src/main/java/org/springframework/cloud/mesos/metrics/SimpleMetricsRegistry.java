@@ -0,0 +1,210 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.util.Assert;
+
+/**
+ * In-memory {@link MetricsRegistry}. Counters are kept as totals, and histograms in buckets of powers of
+ * two, which bounds their memory and keeps the error of a percentile below a factor of two.
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+
+	private final ConcurrentMap<MetricId, LongAdder> counters = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<MetricId, Histogram> histograms = new ConcurrentHashMap<>();
+
+	@Override
+	public void increment(String name, String... tags) {
+		counters.computeIfAbsent(new MetricId(name, tags), id -> new LongAdder()).increment();
+	}
+
+	@Override
+	public void record(String name, long value, String... tags) {
+		histograms.computeIfAbsent(new MetricId(name, tags), id -> new Histogram()).record(value);
+	}
+
+	/**
+	 * Return the value of a counter, or 0 if it was never incremented.
+	 */
+	public long getCount(String name, String... tags) {
+		LongAdder counter = counters.get(new MetricId(name, tags));
+		return counter != null ? counter.sum() : 0;
+	}
+
+	/**
+	 * Return a histogram, or {@code null} if no value was recorded in it.
+	 */
+	public Histogram getHistogram(String name, String... tags) {
+		return histograms.get(new MetricId(name, tags));
+	}
+
+	/**
+	 * Return all counters, keyed by name and tags.
+	 */
+	public Map<MetricId, Long> getCounters() {
+		Map<MetricId, Long> values = new TreeMap<>();
+		counters.forEach((id, counter) -> values.put(id, counter.sum()));
+		return values;
+	}
+
+	/**
+	 * Return all histograms, keyed by name and tags.
+	 */
+	public Map<MetricId, Histogram> getHistograms() {
+		return new TreeMap<>(histograms);
+	}
+
+	@Override
+	public String toString() {
+		return "SimpleMetricsRegistry[counters=" + getCounters() + ", histograms=" + getHistograms() + "]";
+	}
+
+	/**
+	 * The name and tags identifying a metric.
+	 */
+	public static final class MetricId implements Comparable<MetricId> {
+
+		private final String name;
+
+		private final SortedMap<String, String> tags;
+
+		MetricId(String name, String... tags) {
+			Assert.isTrue(tags.length % 2 == 0, "Tags must be given as pairs of key and value");
+			this.name = name;
+			SortedMap<String, String> map = new TreeMap<>();
+			for (int i = 0; i < tags.length; i += 2) {
+				map.put(tags[i], tags[i + 1]);
+			}
+			this.tags = Collections.unmodifiableSortedMap(map);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Map<String, String> getTags() {
+			return tags;
+		}
+
+		@Override
+		public int compareTo(MetricId other) {
+			return toString().compareTo(other.toString());
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof MetricId)) {
+				return false;
+			}
+			MetricId other = (MetricId) o;
+			return name.equals(other.name) && tags.equals(other.tags);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * name.hashCode() + tags.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return tags.isEmpty() ? name : name + tags;
+		}
+	}
+
+	/**
+	 * Histogram of non-negative values. Negative values are recorded as 0.
+	 */
+	public static final class Histogram {
+
+		private final LongAdder count = new LongAdder();
+
+		private final LongAdder sum = new LongAdder();
+
+		private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+		/**
+		 * Bucket {@code i} counts the values of {@code [2^(i-1), 2^i)}, and bucket 0 the zeros.
+		 */
+		private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+		void record(long value) {
+			long v = Math.max(0, value);
+			count.increment();
+			sum.add(v);
+			max.accumulate(v);
+			buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(v));
+		}
+
+		public long getCount() {
+			return count.sum();
+		}
+
+		public long getSum() {
+			return sum.sum();
+		}
+
+		public long getMax() {
+			return max.get();
+		}
+
+		public double getMean() {
+			long n = getCount();
+			return n > 0 ? (double) getSum() / n : 0;
+		}
+
+		/**
+		 * Return an upper bound of the given percentile, which is at most twice the exact value.
+		 *
+		 * @param percentile the percentile, between 0 and 1
+		 */
+		public long getPercentile(double percentile) {
+			long n = getCount();
+			if (n == 0) {
+				return 0;
+			}
+			long rank = (long) Math.ceil(percentile * n);
+			long seen = 0;
+			for (int i = 0; i < buckets.length(); i++) {
+				seen += buckets.get(i);
+				if (seen >= rank) {
+					return i == 0 ? 0 : Math.min(getMax(), i == 63 ? Long.MAX_VALUE : (1L << i) - 1);
+				}
+			}
+			return getMax();
+		}
+
+		@Override
+		public String toString() {
+			return String.format("[count=%d, mean=%.1f, p50=%d, p99=%d, max=%d]", getCount(), getMean(),
+					getPercentile(0.5), getPercentile(0.99), getMax());
+		}
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.deployer.spi.mesos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.mesos.marathon.AsyncAppDeployer;
+import org.springframework.cloud.deployer.spi.mesos.marathon.DeploymentLatencyTracker;
+import org.springframework.cloud.deployer.spi.mesos.marathon.MarathonAppDeployer;
+import org.springframework.cloud.deployer.spi.mesos.stub.StubChronosServer;
+import org.springframework.cloud.deployer.spi.mesos.stub.StubMarathonServer;
+import org.springframework.cloud.mesos.chronos.client.Chronos;
+import org.springframework.cloud.mesos.chronos.client.SingleFlightChronos;
+import org.springframework.cloud.mesos.client.InstrumentedClient;
+import org.springframework.cloud.mesos.marathon.client.ExtendedMarathon;
+import org.springframework.cloud.mesos.metrics.MetricsRegistry;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry.Histogram;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Tests for the beans wired by {@link MesosAutoConfiguration}.
+ */
+public class MesosAutoConfigurationTests {
+
+	private AnnotationConfigApplicationContext context;
+
+	@After
+	public void tearDown() {
+		if (context != null) {
+			context.close();
+		}
+	}
+
+	@Test
+	public void testMarathonClientIsExtended() {
+		load(new HashMap<>());
+
+		assertTrue(context.getBean("marathon") instanceof ExtendedMarathon);
+		assertNotNull(context.getBean(ExtendedMarathon.class));
+	}
+
+	@Test
+	public void testAppDeployerIsAsync() {
+		load(new HashMap<>());
+
+		assertTrue(context.getBean("appDeployer") instanceof AsyncAppDeployer);
+		assertTrue(context.getBean(AppDeployer.class) instanceof AsyncAppDeployer);
+		assertNotNull(context.getBean(MarathonAppDeployer.class).getStatusCache());
+	}
+
+	@Test
+	public void testClientsAreInstrumented() throws Exception {
+		try (StubMarathonServer marathonServer = new StubMarathonServer(1);
+				StubChronosServer chronosServer = new StubChronosServer(1)) {
+			Map<String, Object> properties = new HashMap<>();
+			properties.put("spring.cloud.deployer.mesos.marathon.api-endpoint", marathonServer.getUrl());
+			properties.put("spring.cloud.deployer.mesos.chronos.api-endpoint", chronosServer.getUrl());
+			load(properties);
+
+			context.getBean(ExtendedMarathon.class).getServerInfo();
+			context.getBean(Chronos.class).getJobs();
+
+			SimpleMetricsRegistry registry = (SimpleMetricsRegistry) context.getBean(MetricsRegistry.class);
+			Histogram marathonRequests = registry.getHistogram(InstrumentedClient.REQUESTS,
+					"client", "marathon", "method", "GET", "endpoint", "/v2/info", "status", "200");
+			assertNotNull(marathonRequests);
+			assertEquals(1, marathonRequests.getCount());
+			Histogram chronosRequests = registry.getHistogram(InstrumentedClient.REQUESTS,
+					"client", "chronos", "method", "GET", "endpoint", "/v1/scheduler/jobs", "status", "200");
+			assertNotNull(chronosRequests);
+			assertEquals(1, chronosRequests.getCount());
+		}
+	}
+
+	@Test
+	public void testDeploymentLatencyIsTracked() throws Exception {
+		try (StubMarathonServer marathonServer = new StubMarathonServer(1)) {
+			load(Collections.singletonMap("spring.cloud.deployer.mesos.marathon.api-endpoint", marathonServer.getUrl()));
+			MarathonAppDeployer appDeployer = context.getBean(MarathonAppDeployer.class);
+			DeploymentLatencyTracker tracker = appDeployer.getDeploymentLatencyTracker();
+			assertNotNull(tracker);
+
+			String id = appDeployer.deploy(new AppDeploymentRequest(new AppDefinition("foo", Collections.emptyMap()),
+					new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest")));
+			assertEquals(1, tracker.size());
+			assertEquals(DeploymentState.deployed, appDeployer.status(id).getState());
+
+			assertEquals(0, tracker.size());
+			SimpleMetricsRegistry registry = (SimpleMetricsRegistry) context.getBean(MetricsRegistry.class);
+			Histogram healthy = registry.getHistogram(DeploymentLatencyTracker.HEALTHY, "app", "foo");
+			assertNotNull(healthy);
+			assertEquals(1, healthy.getCount());
+		}
+	}
+
+	@Test
+	public void testSingleFlightCallsAreCounted() throws Exception {
+		try (StubChronosServer chronosServer = new StubChronosServer(1)) {
+			load(Collections.singletonMap("spring.cloud.deployer.mesos.chronos.api-endpoint", chronosServer.getUrl()));
+
+			context.getBean(Chronos.class).getJobNames();
+
+			SimpleMetricsRegistry registry = (SimpleMetricsRegistry) context.getBean(MetricsRegistry.class);
+			assertEquals(1, registry.getCount(SingleFlightChronos.CALLS, "client", "chronos", "request", "getJobNames"));
+		}
+	}
+
+	private void load(Map<String, Object> properties) {
+		context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+		context.register(TestConfig.class, MesosAutoConfiguration.class);
+		context.refresh();
+	}
+}
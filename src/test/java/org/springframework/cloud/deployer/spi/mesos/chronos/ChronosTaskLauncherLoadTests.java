@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.chronos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.mesos.chronos.ChronosTaskLauncher.LaunchResult;
+import org.springframework.cloud.deployer.spi.mesos.stub.LoadDriver;
+import org.springframework.cloud.deployer.spi.mesos.stub.LoadDriver.Report;
+import org.springframework.cloud.deployer.spi.mesos.stub.StubChronosServer;
+import org.springframework.cloud.deployer.spi.task.LaunchState;
+import org.springframework.cloud.mesos.chronos.client.ChronosClient;
+import org.springframework.cloud.mesos.chronos.client.SingleFlightChronos;
+import org.springframework.cloud.mesos.client.HttpClientProperties;
+import org.springframework.cloud.mesos.client.HttpTransport;
+
+/**
+ * Drives {@link ChronosTaskLauncher} at high concurrency against a {@link StubChronosServer}, logging the
+ * throughput and latency percentiles of each run.
+ * Only the outcome of the calls is asserted, the timing is logged but depends on the machine.
+ */
+public class ChronosTaskLauncherLoadTests {
+
+	private static final Log logger = LogFactory.getLog(ChronosTaskLauncherLoadTests.class);
+
+	private static final int TASKS = 500;
+
+	private StubChronosServer server;
+
+	private HttpTransport transport;
+
+	private ChronosTaskLauncherProperties properties;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubChronosServer(64);
+		server.setLatency(2);
+		HttpClientProperties http = new HttpClientProperties();
+		http.setMaxConnectionsPerRoute(64);
+		http.setMaxConnectionsTotal(64);
+		transport = new HttpTransport(http);
+		properties = new ChronosTaskLauncherProperties();
+		properties.setApiEndpoint(server.getUrl());
+		properties.setLaunchConcurrency(16);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		transport.close();
+		server.close();
+	}
+
+	@Test
+	public void testLaunchAllAndConcurrentStatus() throws Exception {
+		properties.setStatusMaxStaleness(5000);
+		ChronosTaskLauncher launcher = launcher();
+		List<AppDeploymentRequest> requests = new ArrayList<>(TASKS);
+		for (int i = 0; i < TASKS; i++) {
+			requests.add(request("task-" + i % 10));
+		}
+
+		long start = System.nanoTime();
+		List<LaunchResult> results = launcher.launchAll(requests);
+		logger.info(String.format("launchAll: %d tasks in %d ms", TASKS, (System.nanoTime() - start) / 1000000));
+		List<String> ids = new ArrayList<>(TASKS);
+		for (LaunchResult result : results) {
+			assertTrue(String.valueOf(result.getError()), result.isSuccess());
+			ids.add(result.getId());
+		}
+		assertEquals(TASKS, server.getJobNames().size());
+
+		Report statuses = run("status", 32, 4 * TASKS,
+				i -> assertEquals(LaunchState.complete, launcher.status(ids.get(i % TASKS)).getState()));
+		assertEquals(0, statuses.getFailures());
+
+		Report cleanups = run("cleanup", 16, TASKS, i -> launcher.cleanup(ids.get(i)));
+		assertEquals(0, cleanups.getFailures());
+		assertTrue(server.getJobNames().isEmpty());
+	}
+
+	@Test
+	public void testStatusWithoutIndex() throws Exception {
+		ChronosTaskLauncher launcher = launcher();
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			ids.add(launcher.launch(request("task-" + i)));
+		}
+
+		Report statuses = run("status by search", 32, 1000,
+				i -> assertEquals(LaunchState.complete, launcher.status(ids.get(i % ids.size())).getState()));
+
+		assertEquals(0, statuses.getFailures());
+	}
+
+	@Test
+	public void testInjectedErrors() throws Exception {
+		ChronosTaskLauncher launcher = launcher();
+		server.setErrorRate(0.1);
+		List<AppDeploymentRequest> requests = new ArrayList<>(TASKS);
+		for (int i = 0; i < TASKS; i++) {
+			requests.add(request("task-" + i % 10));
+		}
+
+		List<LaunchResult> results = launcher.launchAll(requests);
+
+		long failed = results.stream().filter(result -> !result.isSuccess()).count();
+		assertTrue("Expected some failures, got " + failed, failed > 0 && failed < TASKS);
+		assertEquals(TASKS - failed, server.getJobNames().size());
+	}
+
+	private ChronosTaskLauncher launcher() {
+		return new ChronosTaskLauncher(properties, new SingleFlightChronos(
+				ChronosClient.getInstance(server.getUrl(), transport.getClient(), transport.getOptions())));
+	}
+
+	private static Report run(String name, int concurrency, int operations, LoadDriver.Operation operation)
+			throws Exception {
+		Report report = LoadDriver.run(name, concurrency, operations, operation);
+		logger.info(report);
+		if (!report.getErrors().isEmpty()) {
+			logger.info("First failure", report.getErrors().get(0));
+		}
+		return report;
+	}
+
+	private static AppDeploymentRequest request(String name) {
+		return new AppDeploymentRequest(new AppDefinition(name, Collections.singletonMap("spring.cloud.task.name", name)),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"));
+	}
+}
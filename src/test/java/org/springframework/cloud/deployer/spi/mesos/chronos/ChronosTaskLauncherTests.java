@@ -0,0 +1,218 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.chronos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import feign.Response;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.mesos.chronos.ChronosTaskLauncher.LaunchResult;
+import org.springframework.cloud.deployer.spi.task.LaunchState;
+import org.springframework.cloud.deployer.spi.task.TaskStatus;
+import org.springframework.cloud.mesos.chronos.client.Chronos;
+import org.springframework.cloud.mesos.chronos.client.ChronosException;
+import org.springframework.cloud.mesos.chronos.client.GraphCsvReader;
+import org.springframework.cloud.mesos.chronos.client.model.DockerJob;
+import org.springframework.cloud.mesos.chronos.client.model.JobNames;
+
+/**
+ * Unit tests for {@link ChronosTaskLauncher} status handling.
+ */
+public class ChronosTaskLauncherTests {
+
+	private static final String GRAPH = "node,test1,success,idle\nnode,test2,failure,running\nnode,test3,success,queued\n";
+
+	private Chronos chronos;
+
+	private ChronosTaskLauncherProperties properties;
+
+	@Before
+	public void setUp() throws Exception {
+		chronos = mock(Chronos.class);
+		when(chronos.getGraph()).thenReturn(GraphCsvReader.readAll(new StringReader(GRAPH)));
+		when(chronos.getJobNames()).thenReturn(new JobNames(new HashSet<>(Arrays.asList("test1", "test2", "test3"))));
+		properties = new ChronosTaskLauncherProperties();
+		properties.setStatusMaxStaleness(60000L);
+	}
+
+	@Test
+	public void testStatusFromGraph() {
+		ChronosTaskLauncher launcher = new ChronosTaskLauncher(properties, chronos);
+		assertEquals(LaunchState.complete, launcher.status("test1").getState());
+		assertEquals(LaunchState.running, launcher.status("test2").getState());
+		assertEquals(LaunchState.launching, launcher.status("test3").getState());
+		assertEquals(LaunchState.unknown, launcher.status("test4").getState());
+	}
+
+	@Test
+	public void testStatusSharesOneRefresh() throws Exception {
+		ChronosTaskLauncher launcher = new ChronosTaskLauncher(properties, chronos);
+		for (int i = 0; i < 10; i++) {
+			launcher.status("test1");
+		}
+		verify(chronos, times(1)).getGraph();
+		verify(chronos, times(1)).getJobNames();
+	}
+
+	@Test
+	public void testCleanupInvalidatesIndex() throws Exception {
+		ChronosTaskLauncher launcher = new ChronosTaskLauncher(properties, chronos);
+		launcher.status("test1");
+		launcher.cleanup("test1");
+		launcher.status("test1");
+		verify(chronos, times(2)).getGraph();
+		verify(chronos, times(2)).getJobNames();
+	}
+
+	@Test
+	public void testZeroStalenessSearchesJobs() throws Exception {
+		when(chronos.streamSearchJobs(anyString())).thenAnswer(invocation -> response(200, "[]"));
+		when(chronos.streamSearchJobs("test1")).thenAnswer(invocation -> response(200,
+				"[{\"name\":\"test1\"},{\"name\":\"test10\"}]"));
+		when(chronos.streamSearchJobs("test")).thenAnswer(invocation -> response(200,
+				"[{\"name\":\"test1\"},{\"name\":\"test2\"}]"));
+		when(chronos.streamGraphCsv()).thenAnswer(invocation -> response(200, GRAPH));
+		properties.setStatusMaxStaleness(0L);
+		ChronosTaskLauncher launcher = new ChronosTaskLauncher(properties, chronos);
+		assertEquals(LaunchState.complete, launcher.status("test1").getState());
+		assertEquals(LaunchState.complete, launcher.status("test1").getState());
+		assertEquals(LaunchState.unknown, launcher.status("test").getState());
+		assertEquals(LaunchState.unknown, launcher.status("test4").getState());
+		verify(chronos, times(2)).streamSearchJobs("test1");
+		verify(chronos, times(2)).streamGraphCsv();
+		verify(chronos, never()).searchJobs(anyString());
+		verify(chronos, never()).getGraph();
+		verify(chronos, never()).getJobNames();
+		verify(chronos, never()).getJobs();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testZeroStalenessSearchError() throws Exception {
+		when(chronos.streamSearchJobs("test1")).thenAnswer(invocation -> response(503, ""));
+		properties.setStatusMaxStaleness(0L);
+		new ChronosTaskLauncher(properties, chronos).status("test1");
+	}
+
+	@Test
+	public void testStatusAll() throws Exception {
+		properties.setStatusMaxStaleness(0L);
+		ChronosTaskLauncher launcher = new ChronosTaskLauncher(properties, chronos);
+		Map<String, TaskStatus> statuses = launcher.statusAll(Arrays.asList("test3", "test1", "test4"));
+		assertEquals(Arrays.asList("test3", "test1", "test4"), new ArrayList<>(statuses.keySet()));
+		assertEquals(LaunchState.launching, statuses.get("test3").getState());
+		assertEquals(LaunchState.complete, statuses.get("test1").getState());
+		assertEquals(LaunchState.unknown, statuses.get("test4").getState());
+		verify(chronos, times(1)).getGraph();
+		verify(chronos, times(1)).getJobNames();
+	}
+
+	@Test
+	public void testLaunchAll() throws Exception {
+		doAnswer(invocation -> {
+			DockerJob job = (DockerJob) invocation.getArguments()[0];
+			if (job.getName().startsWith("fail-")) {
+				throw new ChronosException(400, "Bad Request");
+			}
+			return null;
+		}).when(chronos).createDockerJob(any(DockerJob.class));
+		properties.setLaunchConcurrency(2);
+		ChronosTaskLauncher launcher = new ChronosTaskLauncher(properties, chronos);
+		launcher.status("test1");
+
+		List<LaunchResult> results = launcher.launchAll(Arrays.asList(request("a"), request("fail"), request("b")));
+
+		assertEquals(3, results.size());
+		assertTrue(results.get(0).isSuccess());
+		assertTrue(results.get(0).getId().startsWith("a-"));
+		assertEquals("fail", results.get(1).getRequest().getDefinition().getName());
+		assertNull(results.get(1).getId());
+		assertEquals(IllegalStateException.class, results.get(1).getError().getClass());
+		assertEquals(ChronosException.class, results.get(1).getError().getCause().getClass());
+		assertTrue(results.get(2).getId().startsWith("b-"));
+		verify(chronos, times(3)).createDockerJob(any(DockerJob.class));
+		launcher.status("test1");
+		verify(chronos, times(2)).getJobNames();
+	}
+
+	@Test
+	public void testSpringApplicationJson() {
+		ChronosTaskLauncher launcher = new ChronosTaskLauncher(properties, chronos);
+
+		Map<String, String> first = launcher.createSpringApplicationJson(request("a"));
+		Map<String, String> second = launcher.createSpringApplicationJson(request("b"));
+		Map<String, String> empty = launcher.createSpringApplicationJson(new AppDeploymentRequest(
+				new AppDefinition("c", null), new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest")));
+
+		assertEquals("SPRING_APPLICATION_JSON", first.get("name"));
+		assertEquals("{\"foo\":\"bar\"}", first.get("value"));
+		assertEquals(first, second);
+		assertTrue(empty.isEmpty());
+	}
+
+	@Test
+	public void testSpringApplicationJsonAfterPropertiesChange() {
+		ChronosTaskLauncher launcher = new ChronosTaskLauncher(properties, chronos);
+		// "Aa" and "BB" have the same hash code, so a key changed from one to the other would still be found
+		Map<String, String> definitionProperties = new HashMap<>();
+		definitionProperties.put("foo", "Aa");
+
+		Map<String, String> first = launcher.createSpringApplicationJson(new AppDeploymentRequest(
+				new AppDefinition("a", definitionProperties),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest")));
+		definitionProperties.put("foo", "BB");
+		Map<String, String> second = launcher.createSpringApplicationJson(new AppDeploymentRequest(
+				new AppDefinition("b", Collections.singletonMap("foo", "BB")),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest")));
+
+		assertEquals("{\"foo\":\"Aa\"}", first.get("value"));
+		assertEquals("{\"foo\":\"BB\"}", second.get("value"));
+	}
+
+	private static AppDeploymentRequest request(String name) {
+		return new AppDeploymentRequest(new AppDefinition(name, Collections.singletonMap("foo", "bar")),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"));
+	}
+
+	private static Response response(int status, String body) {
+		return Response.create(status, "", Collections.emptyMap(), body.getBytes(StandardCharsets.UTF_8));
+	}
+}
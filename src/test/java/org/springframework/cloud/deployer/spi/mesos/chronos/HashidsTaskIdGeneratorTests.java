@@ -0,0 +1,84 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.chronos;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+
+/**
+ * Tests for {@link HashidsTaskIdGenerator}.
+ */
+public class HashidsTaskIdGeneratorTests {
+
+	private final HashidsTaskIdGenerator generator = new HashidsTaskIdGenerator();
+
+	@Test
+	public void testIdStartsWithTaskName() {
+		String id = generator.generateId(request("timestamp"));
+
+		assertTrue(id, id.matches("timestamp-[a-zA-Z0-9]+"));
+	}
+
+	@Test
+	public void testNoCollisionsUnderConcurrentLaunches() throws Exception {
+		int threads = 8;
+		int idsPerThread = 10000;
+		AppDeploymentRequest request = request("timestamp");
+		Set<String> ids = Collections.newSetFromMap(new ConcurrentHashMap<>());
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> workers = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			Thread worker = new Thread(() -> {
+				try {
+					start.await();
+				}
+				catch (InterruptedException e) {
+					return;
+				}
+				for (int j = 0; j < idsPerThread; j++) {
+					ids.add(generator.generateId(request));
+				}
+			});
+			worker.start();
+			workers.add(worker);
+		}
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		assertEquals(threads * idsPerThread, ids.size());
+	}
+
+	private static AppDeploymentRequest request(String name) {
+		return new AppDeploymentRequest(new AppDefinition(name, Collections.emptyMap()),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"));
+	}
+}
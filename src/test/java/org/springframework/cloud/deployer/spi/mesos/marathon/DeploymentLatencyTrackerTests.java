@@ -0,0 +1,126 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.marathon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import org.springframework.cloud.deployer.spi.app.AppInstanceStatus;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry.Histogram;
+
+/**
+ * Tests for {@link DeploymentLatencyTracker}.
+ */
+public class DeploymentLatencyTrackerTests {
+
+	private final SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+
+	private final DeploymentLatencyTracker tracker = new DeploymentLatencyTracker(registry, 2);
+
+	@Test
+	public void testRecordsLatenciesOnceDeployed() {
+		tracker.submitted("/ticktock/time", "time");
+		Instant now = Instant.now();
+		String staged = now.plusMillis(2000).toString();
+		String started = now.plusMillis(5000).toString();
+
+		tracker.observe("/ticktock/time", status("/ticktock/time",
+				instance("1", DeploymentState.deploying, staged, null),
+				instance("2", DeploymentState.deploying, now.plusMillis(3000).toString(), started)));
+		assertNull(registry.getHistogram(DeploymentLatencyTracker.HEALTHY, "app", "time"));
+
+		tracker.observe("/ticktock/time", status("/ticktock/time",
+				instance("1", DeploymentState.deployed, staged, now.plusMillis(6000).toString()),
+				instance("2", DeploymentState.deployed, now.plusMillis(3000).toString(), started)));
+
+		Histogram firstStaged = registry.getHistogram(DeploymentLatencyTracker.FIRST_STAGED, "app", "time");
+		Histogram firstStarted = registry.getHistogram(DeploymentLatencyTracker.FIRST_STARTED, "app", "time");
+		assertEquals(1, firstStaged.getCount());
+		assertTrue(firstStaged.getMax() >= 2000 && firstStaged.getMax() < 2500);
+		assertTrue(firstStarted.getMax() >= 5000 && firstStarted.getMax() < 5500);
+		assertEquals(1, registry.getHistogram(DeploymentLatencyTracker.HEALTHY, "app", "time").getCount());
+		assertEquals(0, tracker.size());
+
+		tracker.observe("/ticktock/time", status("/ticktock/time",
+				instance("1", DeploymentState.deployed, staged, started)));
+		assertEquals(1, registry.getHistogram(DeploymentLatencyTracker.HEALTHY, "app", "time").getCount());
+	}
+
+	@Test
+	public void testIgnoresUntrackedAndForgottenDeployments() {
+		tracker.submitted("/time", "time");
+		tracker.forget("/time");
+
+		tracker.observe("/time", status("/time", instance("1", DeploymentState.deployed, null, null)));
+		tracker.observe("/log", status("/log", instance("1", DeploymentState.deployed, null, null)));
+
+		assertEquals(0, registry.getHistograms().size());
+	}
+
+	@Test
+	public void testMissingOrInvalidTimestamps() {
+		tracker.submitted("/time", "time");
+
+		tracker.observe("/time", status("/time", instance("1", DeploymentState.deployed, "not a time", null)));
+
+		assertNull(registry.getHistogram(DeploymentLatencyTracker.FIRST_STAGED, "app", "time"));
+		assertNull(registry.getHistogram(DeploymentLatencyTracker.FIRST_STARTED, "app", "time"));
+		assertEquals(1, registry.getHistogram(DeploymentLatencyTracker.HEALTHY, "app", "time").getCount());
+	}
+
+	@Test
+	public void testTracksAtMostMaxDeployments() {
+		tracker.submitted("/a", "a");
+		tracker.submitted("/b", "b");
+		tracker.submitted("/c", "c");
+
+		assertEquals(2, tracker.size());
+		tracker.observe("/a", status("/a", instance("1", DeploymentState.deployed, null, null)));
+		assertNull(registry.getHistogram(DeploymentLatencyTracker.HEALTHY, "app", "a"));
+	}
+
+	private static AppStatus status(String id, AppInstanceStatus... instances) {
+		AppStatus.Builder builder = AppStatus.of(id);
+		for (AppInstanceStatus instance : instances) {
+			builder.with(instance);
+		}
+		return builder.build();
+	}
+
+	private static AppInstanceStatus instance(String id, DeploymentState state, String stagedAt, String startedAt) {
+		Map<String, String> attributes = new HashMap<>();
+		attributes.put("staged_at", stagedAt);
+		attributes.put("started_at", startedAt);
+		AppInstanceStatus instance = mock(AppInstanceStatus.class);
+		when(instance.getId()).thenReturn(id);
+		when(instance.getState()).thenReturn(state);
+		when(instance.getAttributes()).thenReturn(attributes);
+		return instance;
+	}
+}
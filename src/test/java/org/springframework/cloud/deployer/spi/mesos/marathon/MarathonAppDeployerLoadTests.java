@@ -0,0 +1,129 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.marathon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.app.DeploymentState;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.deployer.spi.mesos.stub.LoadDriver;
+import org.springframework.cloud.deployer.spi.mesos.stub.LoadDriver.Report;
+import org.springframework.cloud.deployer.spi.mesos.stub.StubMarathonServer;
+import org.springframework.cloud.mesos.client.HttpClientProperties;
+import org.springframework.cloud.mesos.client.HttpTransport;
+import org.springframework.cloud.mesos.marathon.client.ExtendedMarathonClient;
+
+/**
+ * Drives {@link MarathonAppDeployer} at high concurrency against a {@link StubMarathonServer}, logging the
+ * throughput and latency percentiles of each run.
+ * Only the outcome of the calls is asserted, the timing is logged but depends on the machine.
+ */
+public class MarathonAppDeployerLoadTests {
+
+	private static final Log logger = LogFactory.getLog(MarathonAppDeployerLoadTests.class);
+
+	private static final int APPS = 200;
+
+	private StubMarathonServer server;
+
+	private HttpTransport transport;
+
+	private MarathonAppDeployer deployer;
+
+	@Before
+	public void setUp() throws Exception {
+		server = new StubMarathonServer(64);
+		server.setLatency(2);
+		HttpClientProperties http = new HttpClientProperties();
+		http.setMaxConnectionsPerRoute(64);
+		http.setMaxConnectionsTotal(64);
+		transport = new HttpTransport(http);
+		MarathonAppDeployerProperties properties = new MarathonAppDeployerProperties();
+		properties.setApiEndpoint(server.getUrl());
+		deployer = new MarathonAppDeployer(properties,
+				ExtendedMarathonClient.getInstance(server.getUrl(), transport.getClient(), transport.getOptions()));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		deployer.destroy();
+		transport.close();
+		server.close();
+	}
+
+	@Test
+	public void testConcurrentDeployStatusAndUndeploy() throws Exception {
+		Report deploys = run("deploy", 16, APPS, i -> deployer.deploy(request("app-" + i)));
+		assertEquals(0, deploys.getFailures());
+		assertEquals(APPS, server.getAppIds().size());
+
+		Report statuses = run("status", 32, 10 * APPS,
+				i -> assertEquals(DeploymentState.deployed, deployer.status("/app-" + i % APPS).getState()));
+		assertEquals(0, statuses.getFailures());
+
+		Report undeploys = run("undeploy", 16, APPS, i -> deployer.undeploy("/app-" + i));
+		assertEquals(0, undeploys.getFailures());
+		assertTrue(server.getAppIds().isEmpty());
+	}
+
+	@Test
+	public void testInjectedErrors() throws Exception {
+		server.setErrorRate(0.1);
+
+		Report deploys = run("deploy with 10% errors", 16, APPS, i -> deployer.deploy(request("app-" + i)));
+
+		assertTrue(deploys.toString(), deploys.getFailures() > 0 && deploys.getFailures() < APPS);
+		assertEquals(APPS - deploys.getFailures(), server.getAppIds().size());
+	}
+
+	@Test
+	public void testSlowServerCallsRunConcurrently() throws Exception {
+		run("deploy", 16, 64, i -> deployer.deploy(request("app-" + i)));
+		server.setLatency(50);
+
+		Report statuses = run("status with 50 ms latency", 64, 256, i -> deployer.status("/app-" + i % 64));
+
+		assertEquals(0, statuses.getFailures());
+		assertTrue(statuses.toString(), server.getMaxConcurrentRequests() > 1);
+	}
+
+	private static Report run(String name, int concurrency, int operations, LoadDriver.Operation operation)
+			throws Exception {
+		Report report = LoadDriver.run(name, concurrency, operations, operation);
+		logger.info(report);
+		if (!report.getErrors().isEmpty()) {
+			logger.info("First failure", report.getErrors().get(0));
+		}
+		return report;
+	}
+
+	private static AppDeploymentRequest request(String name) {
+		return new AppDeploymentRequest(new AppDefinition(name, Collections.singletonMap("server.port", "8080")),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"));
+	}
+}
@@ -0,0 +1,438 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.marathon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import mesosphere.marathon.client.model.v2.App;
+import mesosphere.marathon.client.model.v2.GetAppResponse;
+import mesosphere.marathon.client.model.v2.Group;
+import mesosphere.marathon.client.model.v2.Task;
+import mesosphere.marathon.client.utils.MarathonException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.cloud.deployer.resource.docker.DockerResource;
+import org.springframework.cloud.deployer.spi.app.AppDeployer;
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+import org.springframework.cloud.deployer.spi.core.AppDefinition;
+import org.springframework.cloud.deployer.spi.core.AppDeploymentRequest;
+import org.springframework.cloud.mesos.client.CallNotPermittedException;
+import org.springframework.cloud.mesos.marathon.client.ExtendedMarathon;
+
+/**
+ * Unit tests for {@link MarathonAppDeployer} using a stubbed {@link ExtendedMarathon}.
+ */
+public class MarathonAppDeployerTests {
+
+	private static final int COUNT = 50;
+
+	private ExtendedMarathon marathon;
+
+	private MarathonAppDeployer deployer;
+
+	@Before
+	public void setUp() throws Exception {
+		marathon = mock(ExtendedMarathon.class);
+		when(marathon.getApp("/foo")).thenThrow(new MarathonException(404, "Not Found"));
+		deployer = new MarathonAppDeployer(new MarathonAppDeployerProperties(), marathon);
+	}
+
+	@Test
+	public void testGroupStatusUsesEmbeddedTasks() throws Exception {
+		when(marathon.getGroupWithTasks("/foo")).thenReturn(group("/foo", true));
+
+		AppStatus status = deployer.status("/foo");
+
+		assertEquals(COUNT, status.getInstances().size());
+		verify(marathon, times(1)).getApp("/foo");
+		verify(marathon, times(1)).getGroupWithTasks("/foo");
+		verify(marathon, never()).getGroup(anyString());
+		verify(marathon, times(1)).getApp(anyString());
+	}
+
+	@Test
+	public void testStatusAsync() throws Exception {
+		when(marathon.getGroupWithTasks("/foo")).thenReturn(group("/foo", true));
+		deployer = new MarathonAppDeployer(new MarathonAppDeployerProperties(), marathon, Executors.newSingleThreadExecutor());
+
+		AppStatus status = deployer.statusAsync("/foo").get(10, TimeUnit.SECONDS);
+
+		assertEquals(COUNT, status.getInstances().size());
+	}
+
+	@Test
+	public void testDeployAsync() throws Exception {
+		when(marathon.getGroup("/foo")).thenThrow(new MarathonException(404, "Not Found"));
+		MarathonAppDeployerProperties properties = new MarathonAppDeployerProperties();
+		properties.setIndexedDeploymentStrategy(MarathonAppDeployerProperties.IndexedDeploymentStrategy.GROUP);
+		deployer = new MarathonAppDeployer(properties, marathon, Executors.newSingleThreadExecutor());
+
+		assertEquals("/foo", deployer.deployAsync(indexedRequest(10)).get(10, TimeUnit.SECONDS));
+
+		verify(marathon).createGroupDeployment(any(Group.class));
+	}
+
+	@Test
+	public void testDeployAsyncFailure() throws Exception {
+		when(marathon.getGroup("/foo")).thenReturn(group("/foo", false));
+		deployer = new MarathonAppDeployer(new MarathonAppDeployerProperties(), marathon, Executors.newSingleThreadExecutor());
+
+		try {
+			deployer.deployAsync(indexedRequest(10)).get(10, TimeUnit.SECONDS);
+			fail("Expected ExecutionException");
+		}
+		catch (ExecutionException e) {
+			assertEquals(IllegalStateException.class, e.getCause().getClass());
+		}
+		try {
+			deployer.deploy(indexedRequest(10));
+			fail("Expected IllegalStateException");
+		}
+		catch (IllegalStateException e) {
+			assertEquals("App 'foo' is already deployed", e.getMessage());
+		}
+		verify(marathon, never()).createApp(any(App.class));
+	}
+
+	@Test
+	public void testUndeployAsync() throws Exception {
+		Group group = group("/foo", false);
+		group.setGroups(Collections.emptyList());
+		when(marathon.getGroup("/foo")).thenReturn(group);
+		deployer = new MarathonAppDeployer(new MarathonAppDeployerProperties(), marathon, Executors.newSingleThreadExecutor());
+
+		assertNull(deployer.undeployAsync("/foo").get(10, TimeUnit.SECONDS));
+
+		verify(marathon).deleteGroupAndApps("/foo", false);
+	}
+
+	@Test
+	public void testUndeployAsyncFailure() throws Exception {
+		Group group = group("/foo", false);
+		group.setGroups(Collections.emptyList());
+		when(marathon.getGroup("/foo")).thenReturn(group);
+		MarathonException failure = new MarathonException(503, "Service Unavailable");
+		doThrow(failure).when(marathon).deleteGroupAndApps("/foo", false);
+		deployer = new MarathonAppDeployer(new MarathonAppDeployerProperties(), marathon, Executors.newSingleThreadExecutor());
+
+		try {
+			deployer.undeployAsync("/foo").get(10, TimeUnit.SECONDS);
+			fail("Expected ExecutionException");
+		}
+		catch (ExecutionException e) {
+			assertSame(failure, e.getCause().getCause());
+		}
+		try {
+			deployer.undeploy("/foo");
+			fail("Expected RuntimeException");
+		}
+		catch (RuntimeException e) {
+			assertSame(failure, e.getCause());
+		}
+	}
+
+	@Test
+	public void testStatusServesLastKnownWhenNotPermitted() throws Exception {
+		when(marathon.getGroupWithTasks("/foo")).thenReturn(group("/foo", true))
+				.thenThrow(new CallNotPermittedException("Circuit breaker of marathon is open"));
+
+		AppStatus status = deployer.status("/foo");
+
+		assertSame(status, deployer.status("/foo"));
+		verify(marathon, times(2)).getGroupWithTasks("/foo");
+	}
+
+	@Test
+	public void testStatusFailsFastWithoutLastKnown() throws Exception {
+		when(marathon.getGroupWithTasks("/foo")).thenReturn(group("/foo", true))
+				.thenThrow(new CallNotPermittedException("Circuit breaker of marathon is open"));
+		MarathonAppDeployerProperties properties = new MarathonAppDeployerProperties();
+		properties.setStatusFallbackMaxAge(0);
+		deployer = new MarathonAppDeployer(properties, marathon);
+		deployer.status("/foo");
+
+		try {
+			deployer.status("/foo");
+			fail("Expected CallNotPermittedException");
+		}
+		catch (CallNotPermittedException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testGroupStatusFallsBackWhenTasksMissing() throws Exception {
+		Group group = group("/foo", false);
+		when(marathon.getGroupWithTasks("/foo")).thenReturn(group);
+		for (App app : group.getApps()) {
+			App fetched = new App();
+			fetched.setId(app.getId());
+			fetched.setInstances(1);
+			GetAppResponse response = mock(GetAppResponse.class);
+			when(response.getApp()).thenReturn(withTasks(fetched));
+			when(marathon.getApp(app.getId())).thenReturn(response);
+		}
+
+		AppStatus status = deployer.status("/foo");
+
+		assertEquals(COUNT, status.getInstances().size());
+		verify(marathon, times(COUNT + 1)).getApp(anyString());
+	}
+
+	@Test
+	public void testParallelIndexedDeployRollsBackOnFailure() throws Exception {
+		List<App> created = Collections.synchronizedList(new ArrayList<>());
+		doAnswer(invocation -> {
+			App app = (App) invocation.getArguments()[0];
+			if (app.getId().endsWith("-3")) {
+				throw new MarathonException(503, "Service Unavailable");
+			}
+			created.add(app);
+			return null;
+		}).when(marathon).createApp(any(App.class));
+		Group createdGroup = new Group();
+		createdGroup.setId("/foo");
+		createdGroup.setApps(created);
+		createdGroup.setGroups(Collections.emptyList());
+		when(marathon.getGroup("/foo")).thenThrow(new MarathonException(404, "Not Found"))
+				.thenReturn(createdGroup);
+		MarathonAppDeployerProperties properties = new MarathonAppDeployerProperties();
+		properties.setInstanceConcurrency(4);
+		deployer = new MarathonAppDeployer(properties, marathon);
+
+		try {
+			deployer.deploy(indexedRequest(10));
+			fail("Expected deployment to fail");
+		}
+		catch (IllegalStateException e) {
+			assertEquals(MarathonException.class, e.getCause().getClass());
+		}
+
+		verify(marathon, times(10)).createApp(any(App.class));
+		verify(marathon, times(9)).deleteApp(anyString());
+		verify(marathon).deleteGroup("/foo");
+	}
+
+	@Test
+	public void testGroupStrategySubmitsSingleGroup() throws Exception {
+		when(marathon.getGroup("/foo")).thenThrow(new MarathonException(404, "Not Found"));
+		MarathonAppDeployerProperties properties = new MarathonAppDeployerProperties();
+		properties.setIndexedDeploymentStrategy(MarathonAppDeployerProperties.IndexedDeploymentStrategy.GROUP);
+		deployer = new MarathonAppDeployer(properties, marathon);
+
+		assertEquals("/foo", deployer.deploy(indexedRequest(10)));
+
+		ArgumentCaptor<Group> group = ArgumentCaptor.forClass(Group.class);
+		verify(marathon).createGroupDeployment(group.capture());
+		assertEquals("/foo", group.getValue().getId());
+		assertEquals(10, group.getValue().getApps().size());
+		assertEquals("/foo/foo-9", new ArrayList<>(group.getValue().getApps()).get(9).getId());
+		verify(marathon, never()).createApp(any(App.class));
+	}
+
+	@Test
+	public void testGroupStrategyOverriddenPerRequest() throws Exception {
+		when(marathon.getGroup("/foo")).thenThrow(new MarathonException(404, "Not Found"));
+		Map<String, String> deploymentProperties = new HashMap<>(indexedRequest(10).getDeploymentProperties());
+		deploymentProperties.put(MarathonAppDeployerProperties.PREFIX + ".indexed-deployment-strategy", "group");
+
+		assertEquals("/foo", deployer.deploy(new AppDeploymentRequest(new AppDefinition("foo", Collections.emptyMap()),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"), deploymentProperties)));
+
+		verify(marathon).createGroupDeployment(any(Group.class));
+		verify(marathon, never()).createApp(any(App.class));
+	}
+
+	@Test
+	public void testUndeployIndexedGroupWithSingleDelete() throws Exception {
+		Group group = group("/foo", false);
+		group.setGroups(Collections.emptyList());
+		when(marathon.getGroup("/foo")).thenReturn(group);
+
+		deployer.undeploy("/foo");
+
+		verify(marathon).deleteGroupAndApps("/foo", false);
+		verify(marathon, never()).deleteApp(anyString());
+	}
+
+	@Test
+	public void testUndeployEmptyGroupWithoutForce() throws Exception {
+		Group group = new Group();
+		group.setId("/foo");
+		group.setApps(Collections.emptyList());
+		group.setGroups(Collections.emptyList());
+		when(marathon.getGroup("/foo")).thenReturn(group);
+
+		deployer.undeploy("/foo");
+
+		verify(marathon).deleteGroup("/foo");
+		verify(marathon, never()).deleteGroupAndApps(anyString(), anyBoolean());
+	}
+
+	@Test
+	public void testUndeployOtherGroupDeletesAppsConcurrently() throws Exception {
+		Group group = group("/foo", false);
+		App other = new App();
+		other.setId("/foo/bar");
+		List<App> apps = new ArrayList<>(group.getApps());
+		apps.add(other);
+		group.setApps(apps);
+		group.setGroups(Collections.emptyList());
+		when(marathon.getGroup("/foo")).thenReturn(group);
+		MarathonAppDeployerProperties properties = new MarathonAppDeployerProperties();
+		properties.setInstanceConcurrency(8);
+		deployer = new MarathonAppDeployer(properties, marathon);
+
+		deployer.undeploy("/foo");
+
+		verify(marathon, times(COUNT + 1)).deleteApp(anyString());
+		verify(marathon).deleteGroup("/foo");
+		verify(marathon, never()).deleteGroupAndApps(anyString(), anyBoolean());
+	}
+
+	@Test
+	public void testStatusCacheInvalidatedByUndeploy() throws Exception {
+		Group group = group("/foo", true);
+		group.setGroups(Collections.emptyList());
+		when(marathon.getGroupWithTasks("/foo")).thenReturn(group);
+		when(marathon.getGroup("/foo")).thenReturn(group);
+		MarathonAppDeployerProperties properties = new MarathonAppDeployerProperties();
+		properties.setStatusCacheTtl(60000);
+		deployer = new MarathonAppDeployer(properties, marathon);
+
+		deployer.status("/foo");
+		deployer.status("/foo");
+		verify(marathon, times(1)).getGroupWithTasks("/foo");
+		assertEquals(1, deployer.getStatusCache().getHits());
+
+		deployer.undeploy("/foo");
+		deployer.status("/foo");
+		verify(marathon, times(2)).getGroupWithTasks("/foo");
+		assertEquals(2, deployer.getStatusCache().getMisses());
+	}
+
+	@Test
+	public void testStatusCachedWhileEventStreamConnected() throws Exception {
+		when(marathon.getGroupWithTasks("/foo")).thenReturn(group("/foo", true));
+		CapturingEventStream eventStream = new CapturingEventStream();
+		deployer.setEventStream(eventStream);
+
+		deployer.status("/foo");
+		verify(marathon, times(1)).getGroupWithTasks("/foo");
+
+		eventStream.listener.onConnected();
+		deployer.status("/foo");
+		deployer.status("/foo");
+		verify(marathon, times(2)).getGroupWithTasks("/foo");
+
+		eventStream.listener.onEvent("status_update_event", Collections.singleton("/bar"));
+		deployer.status("/foo");
+		verify(marathon, times(2)).getGroupWithTasks("/foo");
+
+		eventStream.listener.onEvent("status_update_event", Collections.singleton("/foo/foo-7"));
+		deployer.status("/foo");
+		deployer.status("/foo");
+		verify(marathon, times(3)).getGroupWithTasks("/foo");
+
+		eventStream.listener.onDisconnected();
+		deployer.status("/foo");
+		deployer.status("/foo");
+		verify(marathon, times(5)).getGroupWithTasks("/foo");
+
+		deployer.destroy();
+		assertTrue(eventStream.stopped);
+	}
+
+	private static AppDeploymentRequest indexedRequest(int count) {
+		Map<String, String> deploymentProperties = new HashMap<>();
+		deploymentProperties.put(AppDeployer.INDEXED_PROPERTY_KEY, "true");
+		deploymentProperties.put(AppDeployer.COUNT_PROPERTY_KEY, String.valueOf(count));
+		return new AppDeploymentRequest(new AppDefinition("foo", Collections.emptyMap()),
+				new DockerResource("springcloud/spring-cloud-deployer-spi-test-app:latest"), deploymentProperties);
+	}
+
+	private static Group group(String id, boolean embedTasks) {
+		List<App> apps = new ArrayList<>();
+		for (int i = 0; i < COUNT; i++) {
+			App app = new App();
+			app.setId(id + "/foo-" + i);
+			app.setInstances(1);
+			apps.add(embedTasks ? withTasks(app) : app);
+		}
+		Group group = new Group();
+		group.setId(id);
+		group.setApps(apps);
+		return group;
+	}
+
+	private static App withTasks(App app) {
+		Task task = new Task();
+		task.setId(app.getId().substring(1).replace('/', '_') + ".1");
+		app.setTasks(Collections.singletonList(task));
+		app.setTasksRunning(1);
+		return app;
+	}
+
+	/**
+	 * Event stream that lets tests drive the listener instead of connecting to Marathon.
+	 */
+	private static class CapturingEventStream extends MarathonEventStream {
+
+		private MarathonEventStream.Listener listener;
+
+		private boolean stopped;
+
+		CapturingEventStream() {
+			super("http://localhost", null, 1000L, 1000, 1000);
+		}
+
+		@Override
+		public synchronized void start(Listener listener) {
+			this.listener = listener;
+		}
+
+		@Override
+		public synchronized void stop() {
+			this.stopped = true;
+		}
+	}
+}
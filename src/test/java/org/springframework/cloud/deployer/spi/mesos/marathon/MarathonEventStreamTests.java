@@ -0,0 +1,178 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.marathon;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * Tests for {@link MarathonEventStream} against a stubbed {@code /v2/events} endpoint.
+ */
+public class MarathonEventStreamTests {
+
+	private static final String EVENTS = "event: event_stream_attached\n" +
+			"data: {\"remoteAddress\":\"127.0.0.1\",\"eventType\":\"event_stream_attached\"}\n\n" +
+			"event: status_update_event\n" +
+			"data: {\"eventType\":\"status_update_event\",\"appId\":\"/foo/foo-0\",\"taskStatus\":\"TASK_RUNNING\"}\n\n" +
+			"event: deployment_success\n" +
+			"data: {\"eventType\":\"deployment_success\",\"id\":\"d1\",\n" +
+			"data: \"plan\":{\"steps\":[{\"actions\":[{\"action\":\"ScaleApplication\",\"app\":\"/bar\"}]}]}}\n\n" +
+			"data: {\"eventType\":\"health_status_changed_event\",\"appId\":\"/baz\",\"alive\":false}\n\n" +
+			"event: status_update_event\n" +
+			"data: not json\n\n";
+
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+	private MarathonEventStream eventStream;
+
+	@After
+	public void tearDown() {
+		if (eventStream != null) {
+			eventStream.stop();
+		}
+	}
+
+	@Test
+	public void testEventsAndReconnect() throws Exception {
+		stubFor(get(urlEqualTo("/v2/events"))
+				.willReturn(aResponse()
+						.withHeader("Content-Type", "text/event-stream")
+						.withBody(EVENTS)));
+		RecordingListener listener = new RecordingListener(2);
+		eventStream = new MarathonEventStream("http://localhost:" + wireMockRule.port() + "/",
+				Collections.singletonMap("Authorization", "token=secret"), 10L, 1000, 10000);
+
+		eventStream.start(listener);
+
+		assertTrue("Stream was not re-opened", listener.connected.await(10, TimeUnit.SECONDS));
+		eventStream.stop();
+		List<Set<String>> events = listener.events.subList(0, 3);
+		assertEquals(Collections.singleton("/foo/foo-0"), events.get(0));
+		assertEquals(Collections.singleton("/bar"), events.get(1));
+		assertEquals(Collections.singleton("/baz"), events.get(2));
+		assertTrue(listener.disconnects > 0);
+		verify(getRequestedFor(urlEqualTo("/v2/events"))
+				.withHeader("Accept", equalTo("text/event-stream"))
+				.withHeader("Authorization", equalTo("token=secret")));
+	}
+
+	@Test
+	public void testErrorResponseIsRetried() throws Exception {
+		stubFor(get(urlEqualTo("/v2/events")).willReturn(aResponse().withStatus(503)));
+		RecordingListener listener = new RecordingListener(1);
+		eventStream = new MarathonEventStream("http://localhost:" + wireMockRule.port(), null, 10L, 1000, 10000);
+
+		eventStream.start(listener);
+
+		Thread.sleep(200);
+		eventStream.stop();
+		assertEquals(1, listener.connected.getCount());
+		assertEquals(0, listener.disconnects);
+		assertTrue(wireMockRule.findAll(getRequestedFor(urlEqualTo("/v2/events"))).size() > 1);
+	}
+
+	@Test
+	public void testUnresponsiveServerIsReconnected() throws Exception {
+		AtomicInteger accepted = new AtomicInteger();
+		List<Socket> sockets = Collections.synchronizedList(new ArrayList<>());
+		try (ServerSocket server = new ServerSocket(0)) {
+			Thread acceptor = new Thread(() -> {
+				try {
+					while (true) {
+						// accept the connection, but never answer
+						sockets.add(server.accept());
+						accepted.incrementAndGet();
+					}
+				}
+				catch (IOException e) {
+					// server closed
+				}
+			});
+			acceptor.setDaemon(true);
+			acceptor.start();
+			eventStream = new MarathonEventStream("http://localhost:" + server.getLocalPort(), null, 10L, 1000, 100);
+
+			eventStream.start(new RecordingListener(1));
+
+			long deadline = System.currentTimeMillis() + 10000;
+			while (accepted.get() < 2 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			eventStream.stop();
+			assertTrue("Stream was not re-opened", accepted.get() >= 2);
+		}
+		finally {
+			for (Socket socket : sockets) {
+				socket.close();
+			}
+		}
+	}
+
+	private static class RecordingListener implements MarathonEventStream.Listener {
+
+		private final CountDownLatch connected;
+
+		private final List<Set<String>> events = Collections.synchronizedList(new ArrayList<>());
+
+		private volatile int disconnects;
+
+		RecordingListener(int connects) {
+			this.connected = new CountDownLatch(connects);
+		}
+
+		@Override
+		public void onConnected() {
+			connected.countDown();
+		}
+
+		@Override
+		public void onEvent(String eventType, Set<String> appIds) {
+			events.add(new HashSet<>(appIds));
+		}
+
+		@Override
+		public void onDisconnected() {
+			disconnects++;
+		}
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.marathon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.cloud.deployer.spi.app.AppStatus;
+
+/**
+ * Unit tests for {@link StatusCache}.
+ */
+public class StatusCacheTests {
+
+	private final StatusCache cache = new StatusCache(2);
+
+	private final AtomicInteger fetches = new AtomicInteger();
+
+	@Test
+	public void testTtl() {
+		AppStatus status = cache.get("/foo", 60000, () -> fetch("/foo"));
+		assertSame(status, cache.get("/foo", 60000, () -> fetch("/foo")));
+		assertEquals(1, fetches.get());
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+
+		cache.get("/foo", 0, () -> fetch("/foo"));
+		assertEquals(2, fetches.get());
+		assertNull(cache.getIfPresent("/foo", 0));
+	}
+
+	@Test
+	public void testRetentionKeepsLastKnownStatus() {
+		StatusCache cache = new StatusCache(2, 60000);
+		AppStatus status = cache.get("/foo", 0, () -> fetch("/foo"));
+
+		cache.get("/foo", 0, () -> fetch("/foo"));
+		assertEquals(2, fetches.get());
+		assertNull(cache.getIfPresent("/foo", 0));
+		assertNotNull(cache.getIfPresent("/foo", 60000));
+		assertNotSame(status, cache.getIfPresent("/foo", 60000));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		cache.get("/a", 60000, () -> fetch("/a"));
+		cache.get("/b", 60000, () -> fetch("/b"));
+		cache.get("/a", 60000, () -> fetch("/a"));
+		cache.get("/c", 60000, () -> fetch("/c"));
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictions());
+		assertNotNull(cache.getIfPresent("/a", 60000));
+		assertNull(cache.getIfPresent("/b", 60000));
+		assertNotNull(cache.getIfPresent("/c", 60000));
+	}
+
+	@Test
+	public void testConcurrentLookupsShareOneFetch() throws Exception {
+		int callers = 8;
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		try {
+			List<Future<AppStatus>> results = new ArrayList<>();
+			for (int i = 0; i < callers; i++) {
+				results.add(executor.submit(() -> cache.get("/foo", 0, () -> {
+					await(release);
+					return fetch("/foo");
+				})));
+			}
+			long deadline = System.currentTimeMillis() + 10000;
+			while (cache.getCoalesced() < callers - 1 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			release.countDown();
+			AppStatus first = results.get(0).get(10, TimeUnit.SECONDS);
+			for (Future<AppStatus> result : results) {
+				assertSame(first, result.get(10, TimeUnit.SECONDS));
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, fetches.get());
+		assertEquals(1, cache.getMisses());
+		assertEquals(callers - 1, cache.getCoalesced());
+	}
+
+	@Test
+	public void testInvalidationDuringFetchIsNotStored() {
+		cache.get("/foo", 60000, () -> {
+			cache.invalidateMatching(id -> id.startsWith("/foo"));
+			return fetch("/foo");
+		});
+
+		assertNull(cache.getIfPresent("/foo", 60000));
+		cache.get("/foo", 60000, () -> fetch("/foo"));
+		assertEquals(2, fetches.get());
+	}
+
+	@Test
+	public void testFailureIsNotCached() {
+		try {
+			cache.get("/foo", 60000, () -> {
+				throw new IllegalStateException("Marathon unavailable");
+			});
+			fail("Expected the failure to be rethrown");
+		}
+		catch (IllegalStateException e) {
+			assertEquals("Marathon unavailable", e.getMessage());
+		}
+		cache.get("/foo", 60000, () -> fetch("/foo"));
+		assertEquals(1, fetches.get());
+		assertEquals(2, cache.getMisses());
+	}
+
+	private AppStatus fetch(String id) {
+		fetches.incrementAndGet();
+		return AppStatus.of(id).build();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
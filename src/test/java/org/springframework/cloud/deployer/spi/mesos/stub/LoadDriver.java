@@ -0,0 +1,170 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.stub;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Runs an operation a given number of times from concurrent threads, and reports the throughput and the
+ * latency percentiles of the operation.
+ */
+public final class LoadDriver {
+
+	private LoadDriver() {
+	}
+
+	/**
+	 * Run {@code operations} invocations of {@code operation}, from {@code concurrency} threads.
+	 *
+	 * @param name the name of the run, for the report
+	 * @param concurrency the number of concurrent threads
+	 * @param operations the total number of invocations
+	 * @param operation the operation, given the index of the invocation
+	 */
+	public static Report run(String name, int concurrency, int operations, Operation operation) throws Exception {
+		long[] latencies = new long[operations];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger failures = new AtomicInteger();
+		List<Throwable> errors = new ArrayList<>();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory("load-"));
+		try {
+			List<Future<?>> workers = new ArrayList<>(concurrency);
+			for (int t = 0; t < concurrency; t++) {
+				workers.add(executor.submit(() -> {
+					start.await();
+					for (int i = next.getAndIncrement(); i < operations; i = next.getAndIncrement()) {
+						long begin = System.nanoTime();
+						try {
+							operation.run(i);
+						}
+						catch (Exception | AssertionError e) {
+							failures.incrementAndGet();
+							synchronized (errors) {
+								if (errors.size() < 10) {
+									errors.add(e);
+								}
+							}
+						}
+						latencies[i] = System.nanoTime() - begin;
+					}
+					return null;
+				}));
+			}
+			long begin = System.nanoTime();
+			start.countDown();
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+			long elapsed = System.nanoTime() - begin;
+			return new Report(name, concurrency, latencies, elapsed, failures.get(), errors);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * An operation run by the driver.
+	 */
+	@FunctionalInterface
+	public interface Operation {
+
+		void run(int index) throws Exception;
+
+	}
+
+	/**
+	 * The outcome of a run.
+	 */
+	public static final class Report {
+
+		private final String name;
+
+		private final int concurrency;
+
+		private final long[] sortedLatencies;
+
+		private final long elapsed;
+
+		private final int failures;
+
+		private final List<Throwable> errors;
+
+		Report(String name, int concurrency, long[] latencies, long elapsed, int failures, List<Throwable> errors) {
+			this.name = name;
+			this.concurrency = concurrency;
+			this.sortedLatencies = latencies.clone();
+			Arrays.sort(this.sortedLatencies);
+			this.elapsed = elapsed;
+			this.failures = failures;
+			this.errors = errors;
+		}
+
+		public int getOperations() {
+			return sortedLatencies.length;
+		}
+
+		public int getFailures() {
+			return failures;
+		}
+
+		/**
+		 * Some of the failures, for diagnostics.
+		 */
+		public List<Throwable> getErrors() {
+			return errors;
+		}
+
+		/**
+		 * Operations per second.
+		 */
+		public double getThroughput() {
+			return getOperations() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+		}
+
+		/**
+		 * The given latency percentile, in milliseconds.
+		 *
+		 * @param percentile the percentile, between 0 and 1
+		 */
+		public double getPercentile(double percentile) {
+			if (sortedLatencies.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+			return sortedLatencies[Math.max(0, index)] / 1e6;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s: %d operations, %d threads, %d failures, %.0f ops/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms",
+					name, getOperations(), concurrency, failures, getThroughput(), getPercentile(0.5),
+					getPercentile(0.99), getPercentile(1.0));
+		}
+	}
+}
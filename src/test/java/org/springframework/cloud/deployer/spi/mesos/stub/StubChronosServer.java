@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.stub;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * In-process stub of the Chronos REST API used by the task launcher: listing, searching, creating, starting
+ * and deleting jobs under {@code /v1/scheduler}, and the job graph CSV. Created jobs are reported as having
+ * completed successfully.
+ */
+public class StubChronosServer extends StubServer {
+
+	private final ConcurrentSkipListMap<String, JsonObject> jobs = new ConcurrentSkipListMap<>();
+
+	private final JsonParser parser = new JsonParser();
+
+	public StubChronosServer() throws IOException {
+		this(32);
+	}
+
+	public StubChronosServer(int threads) throws IOException {
+		super(threads);
+	}
+
+	/**
+	 * The names of the jobs currently defined.
+	 */
+	public Set<String> getJobNames() {
+		return new TreeSet<>(jobs.keySet());
+	}
+
+	@Override
+	protected StubResponse handle(String method, String path, Map<String, String> query, String body) {
+		if (path.equals("/v1/scheduler/jobs") && method.equals("GET")) {
+			return StubResponse.json(200, list(null));
+		}
+		if (path.equals("/v1/scheduler/jobs/search") && method.equals("GET")) {
+			return StubResponse.json(200, list(query.get("name")));
+		}
+		if (path.equals("/v1/scheduler/graph/csv") && method.equals("GET")) {
+			StringBuilder csv = new StringBuilder();
+			for (String name : jobs.keySet()) {
+				csv.append("node,").append(name).append(",success,idle\n");
+			}
+			return StubResponse.text(200, csv.toString());
+		}
+		if (path.equals("/v1/scheduler/iso8601") && method.equals("POST")) {
+			JsonObject job = parser.parse(body).getAsJsonObject();
+			jobs.put(job.get("name").getAsString(), job);
+			return StubResponse.empty(204);
+		}
+		if (path.startsWith("/v1/scheduler/job/")) {
+			String name = path.substring("/v1/scheduler/job/".length());
+			if (method.equals("PUT")) {
+				return StubResponse.empty(jobs.containsKey(name) ? 204 : 404);
+			}
+			if (method.equals("DELETE")) {
+				return StubResponse.empty(jobs.remove(name) != null ? 204 : 404);
+			}
+		}
+		if (path.startsWith("/v1/scheduler/task/kill/") && method.equals("DELETE")) {
+			String name = path.substring("/v1/scheduler/task/kill/".length());
+			return StubResponse.empty(jobs.containsKey(name) ? 204 : 404);
+		}
+		return StubResponse.text(404, "Unknown resource " + method + " " + path);
+	}
+
+	private String list(String nameFilter) {
+		JsonArray list = new JsonArray();
+		for (Map.Entry<String, JsonObject> job : jobs.entrySet()) {
+			if (nameFilter == null || job.getKey().contains(nameFilter)) {
+				list.add(job.getValue());
+			}
+		}
+		return list.toString();
+	}
+}
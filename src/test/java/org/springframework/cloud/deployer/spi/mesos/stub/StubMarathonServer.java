@@ -0,0 +1,214 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.stub;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * In-process stub of the Marathon REST API used by the deployer: {@code /v2/info}, {@code /v2/apps} and
+ * {@code /v2/groups}. Created apps are immediately running all their instances, each with a healthy task.
+ * As in Marathon, creating an app creates its enclosing groups, which remain until they are deleted, and
+ * deleting a group deletes everything in it.
+ */
+public class StubMarathonServer extends StubServer {
+
+	private final ConcurrentSkipListMap<String, JsonObject> apps = new ConcurrentSkipListMap<>();
+
+	private final Set<String> groups = new ConcurrentSkipListSet<>();
+
+	private final JsonParser parser = new JsonParser();
+
+	public StubMarathonServer() throws IOException {
+		this(32);
+	}
+
+	public StubMarathonServer(int threads) throws IOException {
+		super(threads);
+	}
+
+	/**
+	 * The ids of the apps currently deployed.
+	 */
+	public Set<String> getAppIds() {
+		return new TreeSet<>(apps.keySet());
+	}
+
+	@Override
+	protected StubResponse handle(String method, String path, Map<String, String> query, String body) {
+		if (path.equals("/v2/info")) {
+			return StubResponse.json(200, "{\"name\":\"marathon\",\"version\":\"1.4.0\",\"frameworkId\":\"stub\","
+					+ "\"leader\":\"" + getUrl().substring("http://".length()) + "\"}");
+		}
+		if (path.equals("/v2/apps") && method.equals("POST")) {
+			return createApp(parser.parse(body).getAsJsonObject());
+		}
+		if (path.startsWith("/v2/apps/")) {
+			String id = id(path.substring("/v2/apps/".length()));
+			switch (method) {
+				case "GET":
+					JsonObject app = apps.get(id);
+					if (app == null) {
+						return notFound("App '" + id + "' does not exist");
+					}
+					JsonObject response = new JsonObject();
+					response.add("app", app);
+					return StubResponse.json(200, response.toString());
+				case "DELETE":
+					return apps.remove(id) != null ? deployment() : notFound("App '" + id + "' does not exist");
+				default:
+			}
+		}
+		if (path.equals("/v2/groups") && method.equals("POST")) {
+			JsonObject group = parser.parse(body).getAsJsonObject();
+			for (JsonElement app : group.getAsJsonArray("apps")) {
+				if (apps.containsKey(app.getAsJsonObject().get("id").getAsString())) {
+					return StubResponse.json(409, "{\"message\":\"Group already exists\"}");
+				}
+			}
+			for (JsonElement app : group.getAsJsonArray("apps")) {
+				createApp(app.getAsJsonObject());
+			}
+			addGroups(id(group.get("id").getAsString()));
+			return deployment();
+		}
+		if (path.equals("/v2/groups") || path.startsWith("/v2/groups/")) {
+			String id = path.length() > "/v2/groups/".length() ? id(path.substring("/v2/groups/".length())) : "/";
+			switch (method) {
+				case "GET":
+					JsonObject group = group(id);
+					return group != null ? StubResponse.json(200, group.toString()) : notFound("Group '" + id + "' does not exist");
+				case "DELETE":
+					if (!id.equals("/") && !groups.remove(id)) {
+						return notFound("Group '" + id + "' does not exist");
+					}
+					String prefix = id.equals("/") ? "/" : id + "/";
+					apps.keySet().removeIf(appId -> appId.startsWith(prefix));
+					groups.removeIf(groupId -> groupId.startsWith(prefix));
+					return deployment();
+				default:
+			}
+		}
+		return StubResponse.json(404, "{\"message\":\"Unknown resource " + method + " " + path + "\"}");
+	}
+
+	private StubResponse createApp(JsonObject app) {
+		String id = id(app.get("id").getAsString());
+		app.addProperty("id", id);
+		int instances = app.has("instances") ? app.get("instances").getAsInt() : 1;
+		String now = Instant.now().toString();
+		JsonArray tasks = new JsonArray();
+		for (int i = 0; i < instances; i++) {
+			JsonObject task = new JsonObject();
+			task.addProperty("id", id.substring(1).replace('/', '_') + "." + UUID.randomUUID());
+			task.addProperty("appId", id);
+			task.addProperty("host", "10.0.0." + (i % 250 + 1));
+			JsonArray ports = new JsonArray();
+			ports.add(new JsonPrimitive(31000 + i));
+			task.add("ports", ports);
+			task.addProperty("stagedAt", now);
+			task.addProperty("startedAt", now);
+			JsonArray healthCheckResults = new JsonArray();
+			JsonObject healthy = new JsonObject();
+			healthy.addProperty("alive", true);
+			healthCheckResults.add(healthy);
+			task.add("healthCheckResults", healthCheckResults);
+			tasks.add(task);
+		}
+		app.add("tasks", tasks);
+		app.addProperty("tasksRunning", instances);
+		app.addProperty("tasksStaged", 0);
+		app.addProperty("tasksHealthy", instances);
+		if (apps.putIfAbsent(id, app) != null) {
+			return StubResponse.json(409, "{\"message\":\"An app with id [" + id + "] already exists.\"}");
+		}
+		addGroups(id.substring(0, id.lastIndexOf('/')));
+		return StubResponse.json(201, app.toString());
+	}
+
+	/**
+	 * Build the group with the given id and everything nested in it, or return {@code null} if there is no such
+	 * group.
+	 */
+	private JsonObject group(String id) {
+		if (!id.equals("/") && !groups.contains(id)) {
+			return null;
+		}
+		String prefix = id.equals("/") ? "/" : id + "/";
+		JsonArray groupApps = new JsonArray();
+		for (Map.Entry<String, JsonObject> app : apps.tailMap(prefix).entrySet()) {
+			if (!app.getKey().startsWith(prefix)) {
+				break;
+			}
+			if (app.getKey().indexOf('/', prefix.length()) < 0) {
+				groupApps.add(app.getValue());
+			}
+		}
+		JsonArray subGroups = new JsonArray();
+		for (String groupId : groups) {
+			if (groupId.startsWith(prefix) && groupId.indexOf('/', prefix.length()) < 0) {
+				JsonObject subGroup = group(groupId);
+				if (subGroup != null) {
+					subGroups.add(subGroup);
+				}
+			}
+		}
+		JsonObject group = new JsonObject();
+		group.addProperty("id", id);
+		group.add("apps", groupApps);
+		group.add("groups", subGroups);
+		return group;
+	}
+
+	/**
+	 * Add the group with the given id and the groups enclosing it.
+	 */
+	private void addGroups(String id) {
+		for (String groupId = id; groupId.length() > 1; groupId = groupId.substring(0, groupId.lastIndexOf('/'))) {
+			groups.add(groupId);
+		}
+	}
+
+	private static StubResponse deployment() {
+		return StubResponse.json(200, "{\"deploymentId\":\"" + UUID.randomUUID() + "\",\"version\":\""
+				+ Instant.now() + "\"}");
+	}
+
+	private static StubResponse notFound(String message) {
+		return StubResponse.json(404, "{\"message\":\"" + message + "\"}");
+	}
+
+	/**
+	 * Normalize an app or group id to a single leading slash and no trailing slash.
+	 */
+	private static String id(String id) {
+		String trimmed = id.replaceAll("^/+", "").replaceAll("/+$", "");
+		return "/" + trimmed;
+	}
+}
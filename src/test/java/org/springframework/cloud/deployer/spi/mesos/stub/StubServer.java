@@ -0,0 +1,242 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.mesos.stub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Base class of the in-process HTTP stubs of Marathon and Chronos, which keep their state in memory. Every
+ * request can be delayed by a fixed latency, and a share of the requests can be answered with an error
+ * status instead, to exercise the clients against a slow or failing server.
+ */
+public abstract class StubServer implements Closeable {
+
+	static {
+		// the JDK server writes the headers and the body of a response separately, which without TCP_NODELAY
+		// adds the delayed ACK timeout of the client to most responses; the property is read once per JVM,
+		// so it is also set for the tests run by Maven
+		if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		}
+	}
+
+	private final HttpServer server;
+
+	private final ExecutorService executor;
+
+	private final AtomicLong requests = new AtomicLong();
+
+	private final AtomicLong injectedErrors = new AtomicLong();
+
+	private final AtomicInteger active = new AtomicInteger();
+
+	private final AtomicInteger maxActive = new AtomicInteger();
+
+	private volatile long latency;
+
+	private volatile double errorRate;
+
+	private volatile int errorStatus = 503;
+
+	protected StubServer(int threads) throws IOException {
+		executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory(getClass().getSimpleName() + "-"));
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", this::serve);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * The base URL of the stub, to use as API endpoint.
+	 */
+	public String getUrl() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+	/**
+	 * Delay every response by the given time in milliseconds.
+	 */
+	public void setLatency(long latency) {
+		this.latency = latency;
+	}
+
+	/**
+	 * Answer the given share of the requests, between 0 and 1, with {@link #setErrorStatus(int) an error}
+	 * instead of handling them.
+	 */
+	public void setErrorRate(double errorRate) {
+		this.errorRate = errorRate;
+	}
+
+	/**
+	 * The status of the injected errors, 503 by default.
+	 */
+	public void setErrorStatus(int errorStatus) {
+		this.errorStatus = errorStatus;
+	}
+
+	/**
+	 * Number of requests received, including the ones answered with an injected error.
+	 */
+	public long getRequests() {
+		return requests.get();
+	}
+
+	public long getInjectedErrors() {
+		return injectedErrors.get();
+	}
+
+	/**
+	 * Highest number of requests that were being handled at the same time.
+	 */
+	public int getMaxConcurrentRequests() {
+		return maxActive.get();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	/**
+	 * Handle a request.
+	 *
+	 * @param method the HTTP method
+	 * @param path the decoded request path
+	 * @param query the decoded query parameters
+	 * @param body the request body, empty if there is none
+	 */
+	protected abstract StubResponse handle(String method, String path, Map<String, String> query, String body);
+
+	private void serve(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+		try {
+			String body = read(exchange.getRequestBody());
+			if (latency > 0) {
+				Thread.sleep(latency);
+			}
+			StubResponse response;
+			if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+				injectedErrors.incrementAndGet();
+				response = StubResponse.json(errorStatus, "{\"message\":\"Injected error\"}");
+			}
+			else {
+				response = handle(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+						query(exchange.getRequestURI().getRawQuery()), body);
+			}
+			byte[] content = response.getBody().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", response.getContentType());
+			exchange.sendResponseHeaders(response.getStatus(), content.length > 0 ? content.length : -1);
+			if (content.length > 0) {
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(content);
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			active.decrementAndGet();
+			exchange.close();
+		}
+	}
+
+	private static String read(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int n;
+		while ((n = in.read(buffer)) >= 0) {
+			out.write(buffer, 0, n);
+		}
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static Map<String, String> query(String rawQuery) throws IOException {
+		Map<String, String> query = new HashMap<>();
+		if (rawQuery != null) {
+			for (String parameter : rawQuery.split("&")) {
+				String[] pair = parameter.split("=", 2);
+				query.put(URLDecoder.decode(pair[0], "UTF-8"), pair.length > 1 ? URLDecoder.decode(pair[1], "UTF-8") : "");
+			}
+		}
+		return query;
+	}
+
+	/**
+	 * A response of a stub.
+	 */
+	public static final class StubResponse {
+
+		private final int status;
+
+		private final String contentType;
+
+		private final String body;
+
+		private StubResponse(int status, String contentType, String body) {
+			this.status = status;
+			this.contentType = contentType;
+			this.body = body;
+		}
+
+		public static StubResponse json(int status, String body) {
+			return new StubResponse(status, "application/json", body);
+		}
+
+		public static StubResponse text(int status, String body) {
+			return new StubResponse(status, "text/plain", body);
+		}
+
+		public static StubResponse empty(int status) {
+			return new StubResponse(status, "application/json", "");
+		}
+
+		public int getStatus() {
+			return status;
+		}
+
+		public String getContentType() {
+			return contentType;
+		}
+
+		public String getBody() {
+			return body;
+		}
+	}
+}
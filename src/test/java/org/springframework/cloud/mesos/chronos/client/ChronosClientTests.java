@@ -6,6 +6,7 @@ import org.junit.Test;
 import org.springframework.cloud.mesos.chronos.client.model.DockerContainer;
 import org.springframework.cloud.mesos.chronos.client.model.Job;
 import org.springframework.cloud.mesos.chronos.client.model.DockerJob;
+import org.springframework.cloud.mesos.chronos.client.model.JobNames;
 
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 
@@ -13,6 +14,7 @@ import static com.github.tomakehurst.wiremock.client.WireMock.delete;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.put;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
@@ -42,6 +44,30 @@ public class ChronosClientTests {
 		assertEquals("Job 2 data found", "test2", jobs.get(1).getName());
 	}
 
+	@Test
+	public void testClientGetJobNames() throws ChronosException {
+		stubFor(get(urlEqualTo("/v1/scheduler/jobs"))
+				.willReturn(aResponse()
+						.withHeader("Content-Type", "application/json")
+						.withBody("[{\"name\":\"test1\",\"command\":\"pwd\",\"description\":\"My test job\"}," +
+								"{\"command\":\"ls\",\"description\":\"Test2\",\"name\":\"test2\"}]")));
+		JobNames jobNames = client.getJobNames();
+		assertEquals("Jobs found", 2, jobNames.size());
+		assertTrue("Job 1 found", jobNames.contains("test1"));
+		assertTrue("Job 2 found", jobNames.contains("test2"));
+	}
+
+	@Test
+	public void testClientSearchJobs() throws ChronosException {
+		stubFor(get(urlEqualTo("/v1/scheduler/jobs/search?name=test1"))
+				.willReturn(aResponse()
+						.withHeader("Content-Type", "application/json")
+						.withBody("[{\"name\":\"test1\",\"command\":\"pwd\",\"description\":\"My test job\"}]")));
+		List<Job> jobs = client.searchJobs("test1");
+		assertEquals("Jobs found", 1, jobs.size());
+		assertEquals("Job 1 data found", "test1", jobs.get(0).getName());
+	}
+
 	@Test
 	public void testClientAddJob() throws ChronosException {
 		stubFor(post(urlEqualTo("/v1/scheduler/iso8601")).willReturn(aResponse()));
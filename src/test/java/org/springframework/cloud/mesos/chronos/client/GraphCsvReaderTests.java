@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.chronos.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import org.springframework.cloud.mesos.chronos.client.model.JobGraph;
+
+/**
+ * Unit tests for {@link GraphCsvReader}.
+ */
+public class GraphCsvReaderTests {
+
+	private static final String GRAPH = "node,test1,success,idle\r\n" +
+			"link,test1,test2\r\n" +
+			"node , test2 , failure , running\n" +
+			"node,test3\n" +
+			"node,test1,failure,queued\n" +
+			"node,test4,success,queued";
+
+	@Test
+	public void testFind() throws Exception {
+		JobGraph.Node node = GraphCsvReader.find(new StringReader(GRAPH), "test2");
+		assertEquals("test2", node.getName());
+		assertEquals("failure", node.getLastStatus());
+		assertEquals("running", node.getState());
+		assertEquals("idle", GraphCsvReader.find(new StringReader(GRAPH), "test1").getState());
+		assertEquals("queued", GraphCsvReader.find(new StringReader(GRAPH), "test4").getState());
+		assertNull(GraphCsvReader.find(new StringReader(GRAPH), "test3"));
+		assertNull(GraphCsvReader.find(new StringReader(GRAPH), "test"));
+	}
+
+	@Test
+	public void testReadAll() throws Exception {
+		JobGraph graph = GraphCsvReader.readAll(new StringReader(GRAPH));
+		assertEquals(3, graph.size());
+		assertEquals("success", graph.getNode("test1").getLastStatus());
+		assertEquals("idle", graph.getNode("test1").getState());
+		assertEquals("running", graph.getNode("test2").getState());
+		assertEquals("queued", graph.getNode("test4").getState());
+	}
+
+	@Test
+	public void testLongLines() throws Exception {
+		StringBuilder name = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			name.append('x');
+		}
+		String csv = "link,a,b\nnode," + name + ",success,idle\n";
+		assertEquals("idle", GraphCsvReader.find(new StringReader(csv), name.toString()).getState());
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		assertEquals(0, GraphCsvReader.readAll(new StringReader("")).size());
+		assertNull(GraphCsvReader.find(new StringReader("\n\n"), "test1"));
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.chronos.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import org.springframework.cloud.mesos.chronos.client.model.Job;
+import org.springframework.cloud.mesos.chronos.client.model.JobNames;
+
+/**
+ * Unit tests for {@link JobListReader}.
+ */
+public class JobListReaderTests {
+
+	private static final String JOBS = "[" +
+			"{\"name\":\"test1\",\"command\":\"pwd\",\"arguments\":[\"--a\",{\"name\":\"nested\"}],\"cpus\":0.5}," +
+			"{\"description\":\"Test2\",\"environmentVariables\":[{\"name\":\"FOO\",\"value\":\"bar\"}],\"name\":\"test2\"}," +
+			"{\"name\":null,\"command\":\"ls\"}," +
+			"42," +
+			"{\"name\":\"test3\",\"command\":\"ls\",\"description\":\"Test3\"}" +
+			"]";
+
+	@Test
+	public void testReadNames() throws Exception {
+		JobNames names = JobListReader.readNames(new StringReader(JOBS));
+		assertEquals(3, names.size());
+		assertTrue(names.contains("test1"));
+		assertTrue(names.contains("test2"));
+		assertTrue(names.contains("test3"));
+	}
+
+	@Test
+	public void testFind() throws Exception {
+		Job job = JobListReader.find(new StringReader(JOBS), "test3");
+		assertEquals("test3", job.getName());
+		assertEquals("Test3", job.getDescription());
+		Job named = JobListReader.find(new StringReader(JOBS), "test2");
+		assertEquals("Test2", named.getDescription());
+		assertEquals("bar", named.getEnvironmentVariables().get(0).get("value"));
+		assertNull(JobListReader.find(new StringReader(JOBS), "FOO"));
+		assertNull(JobListReader.find(new StringReader(JOBS), "nested"));
+	}
+
+	@Test
+	public void testFindStopsAtMatch() throws Exception {
+		Job job = JobListReader.find(new StringReader("[{\"name\":\"test1\",\"command\":\"pwd\"}, this is not json"), "test1");
+		assertEquals("pwd", job.getCommand());
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		assertEquals(0, JobListReader.readNames(new StringReader("[]")).size());
+		assertEquals(0, JobListReader.readNames(new StringReader("{}")).size());
+		assertNull(JobListReader.find(new StringReader("[]"), "test1"));
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.chronos.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.mesos.chronos.client.model.DockerJob;
+import org.springframework.cloud.mesos.chronos.client.model.Job;
+import org.springframework.cloud.mesos.chronos.client.model.JobNames;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry;
+
+/**
+ * Unit tests for {@link SingleFlightChronos}.
+ */
+public class SingleFlightChronosTests {
+
+	private static final int CALLERS = 20;
+
+	private final Chronos delegate = mock(Chronos.class);
+
+	private final SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+
+	private final SingleFlightChronos chronos = new SingleFlightChronos(delegate, registry, "chronos");
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(CALLERS);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testConcurrentCallsShareOneRequest() throws Exception {
+		List<Job> jobs = Collections.singletonList(new Job());
+		when(delegate.getJobs()).thenAnswer(invocation -> {
+			release.await(10, TimeUnit.SECONDS);
+			return jobs;
+		});
+
+		List<Future<List<Job>>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(executor.submit(chronos::getJobs));
+		}
+		awaitDeduplicated(CALLERS - 1);
+		release.countDown();
+
+		for (Future<List<Job>> result : results) {
+			assertSame(jobs, result.get(10, TimeUnit.SECONDS));
+		}
+		verify(delegate, times(1)).getJobs();
+		assertEquals(CALLERS, chronos.getCalls());
+		assertEquals(CALLERS - 1, chronos.getDeduplicatedCalls());
+		assertEquals(CALLERS, registry.getCount(SingleFlightChronos.CALLS, "client", "chronos", "request", "getJobs"));
+		assertEquals(CALLERS - 1, registry.getCount(SingleFlightChronos.DEDUPLICATED,
+				"client", "chronos", "request", "getJobs"));
+
+		chronos.getJobs();
+		verify(delegate, times(2)).getJobs();
+	}
+
+	@Test
+	public void testFailureIsShared() throws Exception {
+		ChronosException failure = new ChronosException(503, "Service Unavailable");
+		when(delegate.getGraphCsv()).thenAnswer(invocation -> {
+			release.await(10, TimeUnit.SECONDS);
+			throw failure;
+		});
+
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(executor.submit(chronos::getGraphCsv));
+		}
+		awaitDeduplicated(CALLERS - 1);
+		release.countDown();
+
+		for (Future<String> result : results) {
+			try {
+				result.get(10, TimeUnit.SECONDS);
+				fail("Expected the call to fail");
+			}
+			catch (ExecutionException e) {
+				assertSame(failure, e.getCause());
+			}
+		}
+		verify(delegate, times(1)).getGraphCsv();
+	}
+
+	@Test
+	public void testCallAfterWriteDoesNotJoinEarlierCall() throws Exception {
+		JobNames before = new JobNames(Collections.singleton("test1"));
+		JobNames after = new JobNames(new HashSet<>(Arrays.asList("test1", "test2")));
+		CountDownLatch inFlight = new CountDownLatch(1);
+		when(delegate.getJobNames()).thenAnswer(invocation -> {
+			inFlight.countDown();
+			release.await(10, TimeUnit.SECONDS);
+			return before;
+		}).thenReturn(after);
+
+		Future<JobNames> earlier = executor.submit(chronos::getJobNames);
+		assertTrue(inFlight.await(10, TimeUnit.SECONDS));
+		chronos.createDockerJob(new DockerJob());
+
+		assertSame(after, chronos.getJobNames());
+		release.countDown();
+		assertSame(before, earlier.get(10, TimeUnit.SECONDS));
+		verify(delegate, times(2)).getJobNames();
+		assertEquals(0, chronos.getDeduplicatedCalls());
+	}
+
+	@Test
+	public void testWritesAreNotShared() throws Exception {
+		chronos.startJob("test");
+		chronos.startJob("test");
+
+		verify(delegate, times(2)).startJob("test");
+		assertEquals(0, chronos.getCalls());
+	}
+
+	private void awaitDeduplicated(int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (chronos.getDeduplicatedCalls() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.cloud.mesos.marathon.client.ExtendedMarathonClient;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry;
+
+/**
+ * Tests for {@link BulkheadClient} with stubbed {@link Client}s.
+ */
+public class BulkheadClientTests {
+
+	private final SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+
+	private final BulkheadProperties properties = new BulkheadProperties();
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testRejectsCallsBeyondTheLimit() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		properties.setMaxConcurrentCalls(1);
+		properties.setMaxWait(10);
+		Bulkhead bulkhead = new Bulkhead(properties, registry, "marathon");
+		Client client = new BulkheadClient((request, options) -> {
+			started.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return response(200);
+		}, bulkhead);
+
+		Future<Response> slow = executor.submit(() -> client.execute(request("/v2/apps/slow"), new Request.Options()));
+		started.await(10, TimeUnit.SECONDS);
+		try {
+			client.execute(request("/v2/apps/foo"), new Request.Options());
+			fail("Expected CallNotPermittedException");
+		}
+		catch (CallNotPermittedException e) {
+			// expected
+		}
+		release.countDown();
+
+		assertEquals(200, slow.get(10, TimeUnit.SECONDS).status());
+		assertEquals(1, bulkhead.getAvailablePermits());
+		assertEquals(1, registry.getCount(Bulkhead.REJECTED, "client", "marathon"));
+	}
+
+	@Test
+	public void testRetryBackoffDoesNotHoldThePermit() throws Exception {
+		properties.setMaxConcurrentCalls(1);
+		properties.setMaxWait(0);
+		Bulkhead bulkhead = new Bulkhead(properties, registry, "marathon");
+		Queue<String> calls = new ConcurrentLinkedQueue<>();
+		AtomicInteger attempts = new AtomicInteger();
+		Client client = new BulkheadClient((request, options) -> {
+			calls.add(request.url());
+			return response(request.url().endsWith("/retried") && attempts.incrementAndGet() == 1 ? 503 : 200);
+		}, bulkhead);
+		RetryProperties retry = new RetryProperties();
+		retry.setMaxAttempts(2);
+		retry.setInitialBackoff(1000);
+		retry.setJitter(0);
+		Client retrying = new RetryingClient(client, retry, registry, "marathon",
+				ExtendedMarathonClient.API_PATH_SEGMENTS);
+
+		Future<Response> retried = executor.submit(() -> retrying.execute(request("/v2/apps/retried"),
+				new Request.Options()));
+		while (calls.isEmpty() || bulkhead.getAvailablePermits() == 0) {
+			Thread.sleep(1);
+		}
+		assertEquals(200, client.execute(request("/v2/apps/other"), new Request.Options()).status());
+
+		assertEquals(200, retried.get(10, TimeUnit.SECONDS).status());
+		assertEquals(Arrays.asList("http://localhost/v2/apps/retried", "http://localhost/v2/apps/other",
+				"http://localhost/v2/apps/retried"), new ArrayList<>(calls));
+		assertEquals(0, registry.getCount(Bulkhead.REJECTED, "client", "marathon"));
+	}
+
+	private static Request request(String path) {
+		return Request.create("GET", "http://localhost" + path, Collections.emptyMap(), null,
+				StandardCharsets.UTF_8);
+	}
+
+	private static Response response(int status) {
+		return Response.create(status, "", Collections.emptyMap(), new byte[0]);
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.mesos.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.mesos.client.CircuitBreaker.State;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry;
+
+/**
+ * Tests for {@link CircuitBreaker}.
+ */
+public class CircuitBreakerTests {
+
+	private final SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+
+	private final CircuitBreakerProperties properties = new CircuitBreakerProperties();
+
+	private CircuitBreaker breaker;
+
+	@Before
+	public void setUp() {
+		properties.setSlidingWindowSize(10);
+		properties.setMinimumCalls(4);
+		properties.setFailureRateThreshold(50);
+		properties.setOpenDuration(100);
+		properties.setHalfOpenCalls(2);
+		breaker = new CircuitBreaker(properties, registry, "marathon");
+	}
+
+	@Test
+	public void testOpensAtFailureRate() {
+		call(false);
+		call(true);
+		call(false);
+		assertEquals(State.CLOSED, breaker.getState());
+		call(true);
+		assertEquals(State.OPEN, breaker.getState());
+
+		assertRejected();
+		assertEquals(1, registry.getCount(CircuitBreaker.REJECTED, "client", "marathon"));
+		assertEquals(1, registry.getCount(CircuitBreaker.TRANSITIONS,
+				"client", "marathon", "from", "CLOSED", "to", "OPEN"));
+	}
+
+	@Test
+	public void testWaitsForMinimumCalls() {
+		call(true);
+		call(true);
+		call(true);
+		assertEquals(State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	public void testOldOutcomesLeaveTheWindow() {
+		call(true);
+		call(true);
+		for (int i = 0; i < 10; i++) {
+			call(false);
+		}
+		call(true);
+		call(true);
+		call(true);
+		call(true);
+		assertEquals(State.CLOSED, breaker.getState());
+		call(true);
+		assertEquals(State.OPEN, breaker.getState());
+	}
+
+	@Test
+	public void testClosesAfterSuccessfulTrialCalls() throws Exception {
+		open();
+		Thread.sleep(150);
+
+		breaker.acquirePermission();
+		breaker.acquirePermission();
+		assertEquals(State.HALF_OPEN, breaker.getState());
+		assertRejected();
+		breaker.onSuccess();
+		breaker.onSuccess();
+
+		assertEquals(State.CLOSED, breaker.getState());
+		assertEquals(1, registry.getCount(CircuitBreaker.TRANSITIONS,
+				"client", "marathon", "from", "HALF_OPEN", "to", "CLOSED"));
+	}
+
+	@Test
+	public void testReopensOnFailedTrialCall() throws Exception {
+		open();
+		Thread.sleep(150);
+
+		call(true);
+
+		assertEquals(State.OPEN, breaker.getState());
+		assertRejected();
+		assertEquals(1, registry.getCount(CircuitBreaker.TRANSITIONS,
+				"client", "marathon", "from", "HALF_OPEN", "to", "OPEN"));
+	}
+
+	@Test
+	public void testReleasedTrialPermissionIsGivenBack() throws Exception {
+		open();
+		Thread.sleep(150);
+
+		breaker.acquirePermission();
+		breaker.acquirePermission();
+		breaker.releasePermission();
+		breaker.acquirePermission();
+		breaker.onSuccess();
+		breaker.onSuccess();
+
+		assertEquals(State.CLOSED, breaker.getState());
+	}
+
+	private void open() {
+		for (int i = 0; i < 4; i++) {
+			call(true);
+		}
+		assertEquals(State.OPEN, breaker.getState());
+	}
+
+	private void call(boolean failure) {
+		breaker.acquirePermission();
+		if (failure) {
+			breaker.onFailure();
+		}
+		else {
+			breaker.onSuccess();
+		}
+	}
+
+	private void assertRejected() {
+		try {
+			breaker.acquirePermission();
+			fail("Expected CallNotPermittedException");
+		}
+		catch (CallNotPermittedException e) {
+			// expected
+		}
+	}
+}
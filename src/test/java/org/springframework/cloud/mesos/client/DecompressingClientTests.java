@@ -0,0 +1,155 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.mesos.chronos.client.Chronos;
+import org.springframework.cloud.mesos.chronos.client.ChronosClient;
+import org.springframework.cloud.mesos.chronos.client.model.Job;
+
+/**
+ * Tests for {@link DecompressingClient} against a local HTTP server that encodes its responses as requested.
+ */
+public class DecompressingClientTests {
+
+	private static final int JOBS = 2000;
+
+	private HttpServer server;
+
+	private final AtomicLong bytesSent = new AtomicLong();
+
+	private final AtomicReference<String> acceptEncoding = new AtomicReference<>();
+
+	private byte[] body;
+
+	@Before
+	public void setUp() throws Exception {
+		StringBuilder jobs = new StringBuilder("[");
+		for (int i = 0; i < JOBS; i++) {
+			if (i > 0) {
+				jobs.append(',');
+			}
+			jobs.append("{\"name\":\"job-").append(i).append("\",\"command\":\"java -jar app.jar\",")
+					.append("\"owner\":\"test@example.com\",\"schedule\":\"R1//P\",\"cpus\":0.5,\"mem\":512.0}");
+		}
+		body = jobs.append(']').toString().getBytes(StandardCharsets.UTF_8);
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/v1/scheduler/jobs", this::serve);
+		server.start();
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void testGzipReducesBytesOnWire() throws Exception {
+		List<Job> plain = chronos(new Client.Default(null, null)).getJobs();
+		long plainBytes = bytesSent.getAndSet(0);
+		assertNull(acceptEncoding.get());
+
+		List<Job> compressed = chronos(new DecompressingClient(new Client.Default(null, null))).getJobs();
+		long compressedBytes = bytesSent.get();
+
+		assertEquals("gzip, deflate", acceptEncoding.get());
+		assertEquals(JOBS, plain.size());
+		assertEquals(JOBS, compressed.size());
+		assertEquals("job-" + (JOBS - 1), compressed.get(JOBS - 1).getName());
+		assertEquals(body.length, plainBytes);
+		assertTrue(String.format("Expected %d compressed bytes to be less than a tenth of %d", compressedBytes, plainBytes),
+				compressedBytes * 10 < plainBytes);
+	}
+
+	@Test
+	public void testDeflate() throws Exception {
+		Client client = new DecompressingClient(new Client.Default(null, null));
+
+		List<Job> jobs = ChronosClient.getInstance("http://localhost:" + server.getAddress().getPort(), client,
+				new Request.Options(), template -> template.header("Accept-Encoding", "deflate")).getJobs();
+
+		assertEquals("deflate", acceptEncoding.get());
+		assertEquals(JOBS, jobs.size());
+		assertTrue(bytesSent.get() * 10 < body.length);
+	}
+
+	@Test
+	public void testEmptyEncodedResponse() throws Exception {
+		Map<String, Collection<String>> headers = Collections.singletonMap("Content-Encoding",
+				Collections.singletonList("gzip"));
+		Request request = Request.create("DELETE", "http://localhost/v1/scheduler/job/test",
+				Collections.emptyMap(), null, StandardCharsets.UTF_8);
+		Client empty = new DecompressingClient((r, options) -> Response.create(204, "No Content", headers, new byte[0]));
+		Client emptyStream = new DecompressingClient((r, options) -> Response.create(204, "No Content", headers,
+				new ByteArrayInputStream(new byte[0]), null));
+
+		assertEquals(-1, empty.execute(request, new Request.Options()).body().asInputStream().read());
+		assertEquals(-1, emptyStream.execute(request, new Request.Options()).body().asInputStream().read());
+	}
+
+	private Chronos chronos(Client client) {
+		return ChronosClient.getInstance("http://localhost:" + server.getAddress().getPort(), client, new Request.Options());
+	}
+
+	private void serve(HttpExchange exchange) throws IOException {
+		String encoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+		acceptEncoding.set(encoding);
+		byte[] response = body;
+		if (encoding != null) {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			boolean gzip = encoding.contains("gzip");
+			try (OutputStream out = gzip ? new GZIPOutputStream(buffer) : new DeflaterOutputStream(buffer)) {
+				out.write(body);
+			}
+			response = buffer.toByteArray();
+			exchange.getResponseHeaders().add("Content-Encoding", gzip ? "gzip" : "deflate");
+		}
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, response.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(response);
+		}
+		bytesSent.addAndGet(response.length);
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.client;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.SocketTimeoutException;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import feign.FeignException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.springframework.cloud.mesos.chronos.client.Chronos;
+import org.springframework.cloud.mesos.chronos.client.ChronosClient;
+
+/**
+ * Tests for {@link HttpTransport} against a stubbed Chronos endpoint.
+ */
+public class HttpTransportTests {
+
+	@Rule
+	public WireMockRule wireMockRule = new WireMockRule(wireMockConfig().dynamicPort());
+
+	private final HttpClientProperties properties = new HttpClientProperties();
+
+	@Before
+	public void setUp() {
+		stubFor(get(urlEqualTo("/v1/scheduler/jobs"))
+				.willReturn(aResponse()
+						.withHeader("Content-Type", "application/json")
+						.withBody("[{\"name\":\"test1\"},{\"name\":\"test2\"}]")));
+	}
+
+	@Test
+	public void testPooledTransport() throws Exception {
+		try (HttpTransport transport = new HttpTransport(properties)) {
+			assertEquals(DecompressingClient.class, transport.getClient().getClass());
+			Chronos chronos = chronos(transport);
+			for (int i = 0; i < 10; i++) {
+				assertEquals(2, chronos.getJobs().size());
+			}
+		}
+		verify(10, getRequestedFor(urlEqualTo("/v1/scheduler/jobs")));
+	}
+
+	@Test
+	public void testDefaultTransport() throws Exception {
+		properties.setPooled(false);
+		try (HttpTransport transport = new HttpTransport(properties)) {
+			assertEquals(2, chronos(transport).getJobs().size());
+		}
+	}
+
+	@Test
+	public void testReadTimeout() throws Exception {
+		stubFor(get(urlEqualTo("/v1/scheduler/jobs")).willReturn(aResponse().withFixedDelay(2000)));
+		properties.setReadTimeout(100);
+		try (HttpTransport transport = new HttpTransport(properties)) {
+			chronos(transport).getJobs();
+			fail("Expected the request to time out");
+		}
+		catch (FeignException e) {
+			assertTrue(e.getCause() instanceof SocketTimeoutException);
+		}
+	}
+
+	private Chronos chronos(HttpTransport transport) {
+		return ChronosClient.getInstance("http://localhost:" + wireMockRule.port(), transport.getClient(),
+				transport.getOptions());
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Request;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.mesos.chronos.client.Chronos;
+import org.springframework.cloud.mesos.chronos.client.ChronosClient;
+import org.springframework.cloud.mesos.chronos.client.ChronosException;
+import org.springframework.cloud.mesos.marathon.client.ExtendedMarathonClient;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry.Histogram;
+
+/**
+ * Tests for {@link InstrumentedClient} against a local HTTP server.
+ */
+public class InstrumentedClientTests {
+
+	private static final byte[] JOBS = "[{\"name\":\"job-1\"},{\"name\":\"job-2\"}]".getBytes(StandardCharsets.UTF_8);
+
+	private HttpServer server;
+
+	private final SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+
+	private Chronos chronos;
+
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/v1/scheduler/jobs", exchange -> respond(exchange, 200, JOBS));
+		server.createContext("/v1/scheduler/job/", exchange -> respond(exchange, 404, new byte[0]));
+		server.start();
+		chronos = ChronosClient.getInstance("http://localhost:" + server.getAddress().getPort(),
+				new InstrumentedClient(new Client.Default(null, null), registry, "chronos",
+						ChronosClient.API_PATH_SEGMENTS),
+				new Request.Options());
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void testSuccessfulCall() throws Exception {
+		assertEquals(2, chronos.getJobs().size());
+
+		Histogram latency = registry.getHistogram(InstrumentedClient.REQUESTS,
+				"client", "chronos", "method", "GET", "endpoint", "/v1/scheduler/jobs", "status", "200");
+		assertNotNull(latency);
+		assertEquals(1, latency.getCount());
+		Histogram size = registry.getHistogram(InstrumentedClient.RESPONSE_SIZE,
+				"client", "chronos", "method", "GET", "endpoint", "/v1/scheduler/jobs");
+		assertEquals(JOBS.length, size.getMax());
+		assertEquals(0, registry.getCounters().size());
+	}
+
+	@Test
+	public void testErrorStatusCountedPerEndpoint() throws Exception {
+		for (String job : new String[] {"job-1", "job-2"}) {
+			try {
+				chronos.deleteJob(job);
+				fail("Expected ChronosException");
+			}
+			catch (ChronosException e) {
+				assertEquals(404, e.getStatus());
+			}
+		}
+
+		assertEquals(2, registry.getCount(InstrumentedClient.ERRORS,
+				"client", "chronos", "method", "DELETE", "endpoint", "/v1/scheduler/job/{id}", "status", "404"));
+	}
+
+	@Test
+	public void testConnectionFailure() {
+		server.stop(0);
+		try {
+			chronos.getJobs();
+			fail("Expected the call to fail");
+		}
+		catch (Exception e) {
+			// expected
+		}
+
+		assertTrue(registry.getCount(InstrumentedClient.ERRORS,
+				"client", "chronos", "method", "GET", "endpoint", "/v1/scheduler/jobs", "status", "IO_ERROR") > 0);
+	}
+
+	@Test
+	public void testMarathonEndpoints() {
+		Set<String> segments = ExtendedMarathonClient.API_PATH_SEGMENTS;
+
+		assertEquals("/v2/apps", InstrumentedClient.endpoint("http://marathon:8080/v2/apps", segments));
+		assertEquals("/v2/apps/{id}", InstrumentedClient.endpoint("http://marathon:8080/v2/apps//my/nested/app", segments));
+		assertEquals("/v2/apps/{id}/tasks", InstrumentedClient.endpoint("http://marathon:8080/v2/apps/my/app/tasks", segments));
+		assertEquals("/v2/groups/{id}", InstrumentedClient.endpoint("http://marathon:8080/v2/groups/my?embed=group.apps", segments));
+		assertEquals("/", InstrumentedClient.endpoint("http://marathon:8080", segments));
+	}
+
+	private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, body.length > 0 ? body.length : -1);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
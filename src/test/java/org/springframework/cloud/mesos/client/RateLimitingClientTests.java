@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.mesos.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Request;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.mesos.chronos.client.Chronos;
+import org.springframework.cloud.mesos.chronos.client.ChronosClient;
+import org.springframework.cloud.mesos.client.RateLimiterProperties.Limit;
+import org.springframework.cloud.mesos.client.RateLimiterProperties.Mode;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry.Histogram;
+
+/**
+ * Tests for {@link RateLimitingClient} against a local HTTP server.
+ */
+public class RateLimitingClientTests {
+
+	private HttpServer server;
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private final SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+
+	private final RateLimiterProperties properties = new RateLimiterProperties();
+
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/v1/scheduler/", this::respond);
+		server.start();
+		properties.setReads(new Limit(20, 2));
+		properties.setWrites(new Limit(1, 1));
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void testQueuedReadsWaitForTheirTurn() throws Exception {
+		Chronos chronos = chronos();
+		long start = System.nanoTime();
+
+		for (int i = 0; i < 6; i++) {
+			chronos.getJobs();
+		}
+
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertTrue("Took " + elapsed + " ms", elapsed >= 180);
+		Histogram waits = registry.getHistogram(RateLimitingClient.WAIT, "client", "chronos", "class", "read");
+		assertEquals(6, waits.getCount());
+		assertTrue(waits.getMax() >= 40);
+	}
+
+	@Test
+	public void testReadsAndWritesAreLimitedSeparately() throws Exception {
+		properties.setMode(Mode.FAIL_FAST);
+		Chronos chronos = chronos();
+
+		chronos.deleteJob("job-1");
+		chronos.getJobs();
+		chronos.getJobs();
+		try {
+			chronos.deleteJob("job-2");
+			fail("Expected CallNotPermittedException");
+		}
+		catch (CallNotPermittedException e) {
+			// expected
+		}
+
+		assertEquals(3, requests.get());
+		assertEquals(1, registry.getCount(RateLimitingClient.REJECTED, "client", "chronos", "class", "write"));
+		assertEquals(0, registry.getCount(RateLimitingClient.REJECTED, "client", "chronos", "class", "read"));
+	}
+
+	@Test
+	public void testRejectsCallsBeyondMaxWait() throws Exception {
+		properties.setMaxWait(100);
+		Chronos chronos = chronos();
+
+		chronos.deleteJob("job-1");
+		try {
+			chronos.deleteJob("job-2");
+			fail("Expected CallNotPermittedException");
+		}
+		catch (CallNotPermittedException e) {
+			// expected
+		}
+
+		assertEquals(1, requests.get());
+	}
+
+	private Chronos chronos() {
+		return ChronosClient.getInstance("http://localhost:" + server.getAddress().getPort(),
+				new RateLimitingClient(new Client.Default(null, null), properties, registry, "chronos"),
+				new Request.Options());
+	}
+
+	private void respond(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		byte[] body = "[]".getBytes();
+		boolean get = "GET".equals(exchange.getRequestMethod());
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(get ? 200 : 204, get ? body.length : -1);
+		try (OutputStream out = exchange.getResponseBody()) {
+			if (get) {
+				out.write(body);
+			}
+		}
+	}
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.mesos.chronos.client.Chronos;
+import org.springframework.cloud.mesos.chronos.client.ChronosClient;
+import org.springframework.cloud.mesos.chronos.client.ChronosException;
+import org.springframework.cloud.mesos.chronos.client.model.Job;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry;
+
+/**
+ * Tests for {@link RetryingClient} against a local HTTP server.
+ */
+public class RetryingClientTests {
+
+	private static final byte[] JOBS = "[{\"name\":\"job-1\"}]".getBytes(StandardCharsets.UTF_8);
+
+	private HttpServer server;
+
+	private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private final SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+
+	private final RetryProperties properties = new RetryProperties();
+
+	private Chronos chronos;
+
+	@Before
+	public void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/v1/scheduler/jobs", this::respond);
+		server.createContext("/v1/scheduler/job/", this::respond);
+		server.createContext("/v1/scheduler/iso8601", this::respond);
+		server.createContext("/v1/scheduler/slow/", exchange -> {
+			requests.incrementAndGet();
+			try {
+				Thread.sleep(500);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			exchange.sendResponseHeaders(204, -1);
+			exchange.close();
+		});
+		server.start();
+		properties.setInitialBackoff(10);
+		properties.setMaxBackoff(50);
+		chronos = ChronosClient.getInstance("http://localhost:" + server.getAddress().getPort(),
+				new RetryingClient(new Client.Default(null, null), properties, registry, "chronos",
+						ChronosClient.API_PATH_SEGMENTS),
+				new Request.Options(), RetryingClient.NEVER_RETRY);
+	}
+
+	@After
+	public void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	public void testRetriesTransientStatus() throws Exception {
+		statuses.addAll(Arrays.asList(503, 502));
+
+		assertEquals(1, chronos.getJobs().size());
+
+		assertEquals(3, requests.get());
+		assertEquals(1, registry.getCount(RetryingClient.RETRIES,
+				"client", "chronos", "method", "GET", "endpoint", "/v1/scheduler/jobs", "status", "503"));
+		assertEquals(1, registry.getCount(RetryingClient.RETRIES,
+				"client", "chronos", "method", "GET", "endpoint", "/v1/scheduler/jobs", "status", "502"));
+	}
+
+	@Test
+	public void testReturnsLastErrorWhenExhausted() throws Exception {
+		statuses.addAll(Arrays.asList(503, 503, 503, 503));
+
+		try {
+			chronos.deleteJob("job-1");
+			fail("Expected ChronosException");
+		}
+		catch (ChronosException e) {
+			assertEquals(503, e.getStatus());
+		}
+
+		assertEquals(3, requests.get());
+		assertEquals(1, registry.getCount(RetryingClient.EXHAUSTED,
+				"client", "chronos", "method", "DELETE", "endpoint", "/v1/scheduler/job/{id}", "status", "503"));
+	}
+
+	@Test
+	public void testDoesNotRetryOtherStatuses() throws Exception {
+		statuses.add(404);
+
+		try {
+			chronos.deleteJob("job-1");
+			fail("Expected ChronosException");
+		}
+		catch (ChronosException e) {
+			assertEquals(404, e.getStatus());
+		}
+
+		assertEquals(1, requests.get());
+		assertTrue(registry.getCounters().isEmpty());
+	}
+
+	@Test
+	public void testSingleAttemptDisablesRetries() throws Exception {
+		properties.setMaxAttempts(1);
+		statuses.add(503);
+
+		try {
+			chronos.getJobs();
+			fail("Expected ChronosException");
+		}
+		catch (ChronosException e) {
+			assertEquals(503, e.getStatus());
+		}
+
+		assertEquals(1, requests.get());
+	}
+
+	@Test
+	public void testRetriesConnectionFailures() {
+		server.stop(0);
+		try {
+			chronos.getJobs();
+			fail("Expected the call to fail");
+		}
+		catch (Exception e) {
+			// expected
+		}
+
+		assertEquals(2, registry.getCount(RetryingClient.RETRIES,
+				"client", "chronos", "method", "GET", "endpoint", "/v1/scheduler/jobs", "status", "IO_ERROR"));
+		assertEquals(1, registry.getCount(RetryingClient.EXHAUSTED,
+				"client", "chronos", "method", "GET", "endpoint", "/v1/scheduler/jobs", "status", "IO_ERROR"));
+	}
+
+	@Test
+	public void testConflictOnCreateIsNotRetried() throws Exception {
+		statuses.add(409);
+
+		try {
+			chronos.createJob(job("job-1"));
+			fail("Expected ChronosException");
+		}
+		catch (ChronosException e) {
+			assertEquals(409, e.getStatus());
+		}
+
+		assertEquals(1, requests.get());
+	}
+
+	@Test
+	public void testTimedOutCreateIsNotRetried() throws Exception {
+		Chronos slowChronos = ChronosClient.getInstance(
+				"http://localhost:" + server.getAddress().getPort() + "/v1/scheduler/slow",
+				new RetryingClient(new Client.Default(null, null), properties, registry, "chronos",
+						ChronosClient.API_PATH_SEGMENTS),
+				new Request.Options(1000, 100), RetryingClient.NEVER_RETRY);
+
+		try {
+			slowChronos.createJob(job("job-1"));
+			fail("Expected the call to time out");
+		}
+		catch (RetryableException e) {
+			// expected
+		}
+		assertEquals(1, requests.get());
+		try {
+			slowChronos.deleteJob("job-1");
+			fail("Expected the call to time out");
+		}
+		catch (RetryableException e) {
+			// expected
+		}
+
+		assertEquals(0, registry.getCount(RetryingClient.RETRIES, "client", "chronos", "method", "POST",
+				"endpoint", "/v1/scheduler/{id}/v1/scheduler/iso8601", "status", "IO_ERROR"));
+		assertEquals(2, registry.getCount(RetryingClient.RETRIES, "client", "chronos", "method", "DELETE",
+				"endpoint", "/v1/scheduler/{id}/v1/scheduler/job/{id}", "status", "IO_ERROR"));
+	}
+
+	@Test
+	public void testBackoffIsBoundedAndJittered() {
+		properties.setInitialBackoff(100);
+		properties.setMaxBackoff(1000);
+		properties.setJitter(0.5);
+		RetryingClient client = new RetryingClient(new Client.Default(null, null), properties, registry, "chronos",
+				ChronosClient.API_PATH_SEGMENTS);
+
+		for (int i = 0; i < 100; i++) {
+			long first = client.backoff(1);
+			assertTrue(first >= 50 && first <= 100);
+			long third = client.backoff(3);
+			assertTrue(third >= 200 && third <= 400);
+			long tenth = client.backoff(10);
+			assertTrue(tenth >= 500 && tenth <= 1000);
+		}
+	}
+
+	private static Job job(String name) {
+		Job job = new Job();
+		job.setName(name);
+		return job;
+	}
+
+	private void respond(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		Integer status = statuses.poll();
+		byte[] body = status == null ? JOBS : new byte[0];
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status == null ? 200 : status, body.length > 0 ? body.length : -1);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.cloud.mesos.marathon.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import mesosphere.marathon.client.utils.MarathonException;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.springframework.cloud.mesos.client.CallNotPermittedException;
+import org.springframework.cloud.mesos.client.CircuitBreaker;
+import org.springframework.cloud.mesos.client.CircuitBreakerProperties;
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry;
+
+/**
+ * Tests for {@link ResilientMarathon} with a mocked {@link ExtendedMarathon}.
+ */
+public class ResilientMarathonTests {
+
+	private final SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+
+	private ExtendedMarathon delegate;
+
+	private CircuitBreaker circuitBreaker;
+
+	@Before
+	public void setUp() {
+		delegate = mock(ExtendedMarathon.class);
+		CircuitBreakerProperties properties = new CircuitBreakerProperties();
+		properties.setMinimumCalls(2);
+		circuitBreaker = new CircuitBreaker(properties, registry, "marathon");
+	}
+
+	@Test
+	public void testServerErrorsOpenTheCircuit() throws Exception {
+		when(delegate.getApp("/foo")).thenThrow(new MarathonException(503, "Service Unavailable"));
+		ExtendedMarathon marathon = ResilientMarathon.wrap(delegate, circuitBreaker);
+
+		for (int i = 0; i < 3; i++) {
+			try {
+				marathon.getApp("/foo");
+				fail("Expected the call to fail");
+			}
+			catch (MarathonException e) {
+				assertEquals(503, e.getStatus());
+			}
+			catch (CallNotPermittedException e) {
+				assertEquals(2, i);
+			}
+		}
+
+		verify(delegate, times(2)).getApp("/foo");
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+	}
+
+	@Test
+	public void testClientErrorsKeepTheCircuitClosed() throws Exception {
+		when(delegate.getApp("/foo")).thenThrow(new MarathonException(404, "Not Found"));
+		ExtendedMarathon marathon = ResilientMarathon.wrap(delegate, circuitBreaker);
+
+		for (int i = 0; i < 5; i++) {
+			try {
+				marathon.getApp("/foo");
+				fail("Expected MarathonException");
+			}
+			catch (MarathonException e) {
+				assertEquals(404, e.getStatus());
+			}
+		}
+
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.mesos.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import org.springframework.cloud.mesos.metrics.SimpleMetricsRegistry.Histogram;
+
+/**
+ * Tests for {@link SimpleMetricsRegistry}.
+ */
+public class SimpleMetricsRegistryTests {
+
+	private final SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+
+	@Test
+	public void testCountersByTags() {
+		registry.increment("errors", "status", "500", "client", "marathon");
+		registry.increment("errors", "client", "marathon", "status", "500");
+		registry.increment("errors", "client", "marathon", "status", "503");
+
+		assertEquals(2, registry.getCount("errors", "client", "marathon", "status", "500"));
+		assertEquals(1, registry.getCount("errors", "client", "marathon", "status", "503"));
+		assertEquals(0, registry.getCount("errors", "client", "chronos", "status", "500"));
+		assertEquals(2, registry.getCounters().size());
+	}
+
+	@Test
+	public void testHistogram() {
+		for (int i = 1; i <= 1000; i++) {
+			registry.record("latency", i);
+		}
+
+		Histogram histogram = registry.getHistogram("latency");
+		assertEquals(1000, histogram.getCount());
+		assertEquals(500500, histogram.getSum());
+		assertEquals(1000, histogram.getMax());
+		assertEquals(500.5, histogram.getMean(), 0.001);
+		long median = histogram.getPercentile(0.5);
+		assertTrue("Expected median between 500 and 1000, got " + median, median >= 500 && median < 1000);
+		assertEquals(1000, histogram.getPercentile(0.99));
+		assertNull(registry.getHistogram("latency", "client", "marathon"));
+	}
+
+	@Test
+	public void testZerosAndNegativeValues() {
+		registry.record("size", 0);
+		registry.record("size", -5);
+
+		Histogram histogram = registry.getHistogram("size");
+		assertEquals(2, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, histogram.getPercentile(0.99));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnpairedTags() {
+		registry.increment("errors", "client");
+	}
+}